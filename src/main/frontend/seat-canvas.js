@@ -0,0 +1,566 @@
+/*
+ * Client-side renderer for SeatCanvas. The server sends
+ *   { tableSize, seatSize, tables: [x, y, seatCount, ...], tableNames: [...], seatNos: [...], status: 'ARCUH...' }
+ * with seats in table order, and this module works out seat positions and draws everything.
+ * update(canvas, indexes, status) recolors single seats of the last draw: indexes into that seat order and one
+ * status letter per index.
+ *
+ * The layout can be panned (drag) and zoomed (wheel, double click fits everything). Tables are kept in a bucket
+ * grid so a frame only visits tables in view, and the level of detail drops with the zoom: full tables and seats,
+ * then one pie of seat statuses per table, then one dot per table in its most common status. The dots live in an
+ * overview bitmap with a few pixels per table that is scaled onto the canvas with a single drawImage, so the work
+ * per frame is bounded by what fits on screen, not by the size of the venue.
+ */
+const SEAT_COLORS = {
+  A: 'lightgreen',
+  H: 'gold',
+  R: 'red',
+  C: 'blue',
+  U: 'lightgray'
+};
+
+const LEGEND = [
+  { label: 'Available', color: SEAT_COLORS.A },
+  { label: 'On hold', color: SEAT_COLORS.H },
+  { label: 'Reserved', color: SEAT_COLORS.R },
+  { label: 'Checked-in', color: SEAT_COLORS.C },
+  { label: 'Unavailable', color: SEAT_COLORS.U }
+];
+
+// status letters by code; statuses are kept as codes so per-table counts are plain typed arrays
+const CODES = 'AHRCU';
+const CODE_COLORS = Array.from(CODES, c => SEAT_COLORS[c]);
+// the same colors as RGB for the overview bitmap, the last entry is a table without seats (orange)
+const CODE_RGB = [[144, 238, 144], [255, 215, 0], [255, 0, 0], [0, 0, 255], [211, 211, 211], [255, 165, 0]];
+
+const LEGEND_BOX = { x: 0, y: 0, width: 140, height: 170 };
+// below this many screen pixels per seat radius tables are drawn as status pies
+const DETAIL_MIN_SEAT_PX = 5;
+// below this many screen pixels per table radius tables are drawn as dots
+const PIE_MIN_TABLE_PX = 6;
+const MAX_SCALE = 4;
+// overview pixels per table pitch, the table's dot is the centered 3x3 block
+const OVERVIEW_PX = 5;
+const OVERVIEW_MAX_PX = 8192;
+const ZOOM_SPEED = 0.0015;
+
+function drawStage(ctx) {
+  ctx.fillStyle = '#444';
+  ctx.fillRect(250, 10, 300, 40);
+  ctx.fillStyle = 'white';
+  ctx.font = '20px Arial';
+  ctx.textAlign = 'start';
+  ctx.textBaseline = 'alphabetic';
+  ctx.fillText('STAGE', 380, 35);
+}
+
+function drawLegend(ctx) {
+  const legendX = 20;
+  const legendY = 70;
+  const boxSize = 12;
+  const lineHeight = 20;
+  ctx.fillStyle = 'rgba(255, 255, 255, 0.85)';
+  ctx.fillRect(LEGEND_BOX.x, LEGEND_BOX.y + legendY - lineHeight, LEGEND_BOX.width, LEGEND.length * lineHeight + lineHeight);
+  ctx.font = '14px Arial';
+  ctx.textAlign = 'start';
+  ctx.textBaseline = 'middle';
+  LEGEND.forEach((item, idx) => {
+    const y = legendY + idx * lineHeight;
+    ctx.fillStyle = item.color;
+    ctx.fillRect(legendX, y - boxSize / 2, boxSize, boxSize);
+    ctx.lineWidth = 1;
+    ctx.strokeStyle = '#333';
+    ctx.strokeRect(legendX, y - boxSize / 2, boxSize, boxSize);
+    ctx.fillStyle = '#000';
+    ctx.fillText(item.label, legendX + boxSize + 8, y);
+  });
+}
+
+function drawTable(ctx, cx, cy, radius, name) {
+  ctx.beginPath();
+  ctx.arc(cx, cy, radius, 0, 2 * Math.PI);
+  ctx.fillStyle = 'orange';
+  ctx.fill();
+  ctx.lineWidth = 1;
+  ctx.strokeStyle = '#000';
+  ctx.stroke();
+
+  ctx.fillStyle = 'black';
+  ctx.font = '16px Arial';
+  ctx.textAlign = 'center';
+  ctx.textBaseline = 'middle';
+  ctx.fillText(name, cx, cy);
+}
+
+function drawSeat(ctx, sx, sy, radius, seatNo, color) {
+  ctx.fillStyle = color;
+  ctx.beginPath();
+  ctx.arc(sx, sy, radius, 0, 2 * Math.PI);
+  ctx.fill();
+  ctx.lineWidth = 1;
+  ctx.strokeStyle = '#000';
+  ctx.stroke();
+
+  // seat number with a white outline for contrast
+  ctx.font = '12px Arial';
+  ctx.textAlign = 'center';
+  ctx.textBaseline = 'middle';
+  ctx.lineWidth = 3;
+  ctx.strokeStyle = 'white';
+  ctx.strokeText(seatNo, sx, sy);
+  ctx.fillStyle = 'black';
+  ctx.fillText(seatNo, sx, sy);
+}
+
+// one slice per status, proportional to its seat count
+function drawPie(layout, ctx, t) {
+  const { tableXs, tableYs, tableCounts, seatStart, pieRadius } = layout;
+  const cx = tableXs[t];
+  const cy = tableYs[t];
+  const total = seatStart[t + 1] - seatStart[t];
+  if (total === 0) {
+    ctx.beginPath();
+    ctx.arc(cx, cy, pieRadius, 0, 2 * Math.PI);
+    ctx.fillStyle = 'orange';
+    ctx.fill();
+    return;
+  }
+  let angle = -Math.PI / 2;
+  for (let c = 0; c < CODES.length; c++) {
+    const count = tableCounts[t * CODES.length + c];
+    if (count === 0) {
+      continue;
+    }
+    const next = angle + 2 * Math.PI * count / total;
+    ctx.beginPath();
+    ctx.moveTo(cx, cy);
+    ctx.arc(cx, cy, pieRadius, angle, next);
+    ctx.closePath();
+    ctx.fillStyle = CODE_COLORS[c];
+    ctx.fill();
+    angle = next;
+  }
+}
+
+// most common status of the table's seats, CODES.length for a table without seats
+function dominantCode(layout, t) {
+  const { tableCounts, seatStart } = layout;
+  if (seatStart[t + 1] === seatStart[t]) {
+    return CODES.length;
+  }
+  let best = 0;
+  for (let c = 1; c < CODES.length; c++) {
+    if (tableCounts[t * CODES.length + c] > tableCounts[t * CODES.length + best]) {
+      best = c;
+    }
+  }
+  return best;
+}
+
+function drawDetailedTable(layout, ctx, t) {
+  const { tableXs, tableYs, tableNames, tableRadius, seatStart, seatXs, seatYs, seatRadius, seatNos, status } = layout;
+  drawTable(ctx, tableXs[t], tableYs[t], tableRadius, tableNames[t]);
+  for (let seat = seatStart[t]; seat < seatStart[t + 1]; seat++) {
+    drawSeat(ctx, seatXs[seat], seatYs[seat], seatRadius, seatNos[seat], CODE_COLORS[status[seat]]);
+  }
+}
+
+/*
+ * Seat positions, per-table status counts and a bucket grid over the table centers. Buckets are one table pitch
+ * wide, stored flat (bucketStart/bucketTables) so building them for 10,000 tables is two passes over typed arrays.
+ */
+function buildLayout(data) {
+  const { tableSize, seatSize, tables, tableNames, seatNos, status } = data;
+  const tableCount = tableNames.length;
+  const seatCount = seatNos.length;
+  const seatDistance = tableSize / 2 + 25;
+  const seatRadius = Math.floor(seatSize / 2);
+  const layout = {
+    tableCount,
+    tableNames,
+    seatNos,
+    tableRadius: Math.floor(tableSize / 2),
+    seatRadius,
+    pieRadius: seatDistance,
+    // farthest a table and its seats reach from the table center
+    extent: seatDistance + seatRadius + 2,
+    tableXs: new Float64Array(tableCount),
+    tableYs: new Float64Array(tableCount),
+    seatStart: new Int32Array(tableCount + 1),
+    seatXs: new Int32Array(seatCount),
+    seatYs: new Int32Array(seatCount),
+    seatTable: new Int32Array(seatCount),
+    status: new Uint8Array(seatCount),
+    tableCounts: new Uint16Array(tableCount * CODES.length)
+  };
+
+  let seat = 0;
+  let minX = 0;
+  let minY = 0;
+  let maxX = 550;
+  let maxY = 50;
+  for (let t = 0; t < tableCount; t++) {
+    const cx = tables[t * 3];
+    const cy = tables[t * 3 + 1];
+    const count = tables[t * 3 + 2];
+    layout.tableXs[t] = cx;
+    layout.tableYs[t] = cy;
+    layout.seatStart[t] = seat;
+    minX = Math.min(minX, cx);
+    minY = Math.min(minY, cy);
+    maxX = Math.max(maxX, cx);
+    maxY = Math.max(maxY, cy);
+    for (let s = 0; s < count; s++, seat++) {
+      const angle = 2 * Math.PI * s / count;
+      // truncated like the server-side layout always was, so seat positions stay pixel-identical
+      layout.seatXs[seat] = Math.trunc(cx + Math.cos(angle) * seatDistance);
+      layout.seatYs[seat] = Math.trunc(cy + Math.sin(angle) * seatDistance);
+      layout.seatTable[seat] = t;
+      const code = Math.max(0, CODES.indexOf(status[seat]));
+      layout.status[seat] = code;
+      layout.tableCounts[t * CODES.length + code]++;
+    }
+  }
+  layout.seatStart[tableCount] = seat;
+  layout.bounds = {
+    minX: minX - layout.extent,
+    minY: minY - layout.extent,
+    maxX: maxX + layout.extent,
+    maxY: maxY + layout.extent
+  };
+
+  const cellSize = Math.max(2 * layout.extent, tableSize * 2);
+  const cols = Math.max(1, Math.ceil((maxX - minX) / cellSize) + 1);
+  const rows = Math.max(1, Math.ceil((maxY - minY) / cellSize) + 1);
+  const cellOf = t => Math.floor((layout.tableYs[t] - minY) / cellSize) * cols
+      + Math.floor((layout.tableXs[t] - minX) / cellSize);
+  const bucketStart = new Int32Array(cols * rows + 1);
+  for (let t = 0; t < tableCount; t++) {
+    bucketStart[cellOf(t) + 1]++;
+  }
+  for (let b = 0; b < cols * rows; b++) {
+    bucketStart[b + 1] += bucketStart[b];
+  }
+  const fill = bucketStart.slice(0, cols * rows);
+  const bucketTables = new Int32Array(tableCount);
+  for (let t = 0; t < tableCount; t++) {
+    bucketTables[fill[cellOf(t)]++] = t;
+  }
+  layout.grid = { originX: minX, originY: minY, cellSize, cols, rows, bucketStart, bucketTables };
+  layout.overview = buildOverview(layout);
+  return layout;
+}
+
+/*
+ * One cell of OVERVIEW_PX pixels per table pitch, tables snapped to the nearest cell. Null when the venue is
+ * spread too thin for a bitmap, dots are then drawn as vectors.
+ */
+function buildOverview(layout) {
+  const { originX, originY, cellSize, cols, rows } = layout.grid;
+  const width = (cols + 1) * OVERVIEW_PX;
+  const height = (rows + 1) * OVERVIEW_PX;
+  if (width > OVERVIEW_MAX_PX || height > OVERVIEW_MAX_PX || typeof document === 'undefined') {
+    return null;
+  }
+  const canvas = document.createElement('canvas');
+  canvas.width = width;
+  canvas.height = height;
+  const ctx = canvas.getContext('2d');
+  const image = ctx.createImageData(width, height);
+  const cellXs = new Int32Array(layout.tableCount);
+  const cellYs = new Int32Array(layout.tableCount);
+  const overview = { canvas, ctx, image, cellXs, cellYs, originX: originX - cellSize / 2, originY: originY - cellSize / 2 };
+  for (let t = 0; t < layout.tableCount; t++) {
+    cellXs[t] = Math.round((layout.tableXs[t] - originX) / cellSize);
+    cellYs[t] = Math.round((layout.tableYs[t] - originY) / cellSize);
+    paintOverviewCell(layout, overview, t);
+  }
+  ctx.putImageData(image, 0, 0);
+  return overview;
+}
+
+function paintOverviewCell(layout, overview, t) {
+  const { image, cellXs, cellYs } = overview;
+  const [r, g, b] = CODE_RGB[dominantCode(layout, t)];
+  for (let y = 1; y <= 3; y++) {
+    let i = ((cellYs[t] * OVERVIEW_PX + y) * image.width + cellXs[t] * OVERVIEW_PX + 1) * 4;
+    for (let x = 1; x <= 3; x++, i += 4) {
+      image.data[i] = r;
+      image.data[i + 1] = g;
+      image.data[i + 2] = b;
+      image.data[i + 3] = 255;
+    }
+  }
+}
+
+// draws the overview cells of tables (all of them when tables is null) in world space
+function drawOverview(ctx, layout, tables) {
+  const { overview } = layout;
+  const { cellSize } = layout.grid;
+  const wasSmoothing = ctx.imageSmoothingEnabled;
+  ctx.imageSmoothingEnabled = false;
+  if (tables === null) {
+    ctx.drawImage(overview.canvas, overview.originX, overview.originY,
+        overview.canvas.width / OVERVIEW_PX * cellSize, overview.canvas.height / OVERVIEW_PX * cellSize);
+  } else {
+    tables.forEach(t => {
+      const px = overview.cellXs[t] * OVERVIEW_PX;
+      const py = overview.cellYs[t] * OVERVIEW_PX;
+      ctx.drawImage(overview.canvas, px, py, OVERVIEW_PX, OVERVIEW_PX,
+          overview.originX + overview.cellXs[t] * cellSize, overview.originY + overview.cellYs[t] * cellSize,
+          cellSize, cellSize);
+    });
+  }
+  ctx.imageSmoothingEnabled = wasSmoothing;
+}
+
+// calls visit(t) for every table whose extent may reach into the world rectangle
+function forEachTableIn(layout, x0, y0, x1, y1, visit) {
+  const { originX, originY, cellSize, cols, rows, bucketStart, bucketTables } = layout.grid;
+  const r = layout.extent;
+  const c0 = Math.max(0, Math.floor((x0 - r - originX) / cellSize));
+  const c1 = Math.min(cols - 1, Math.floor((x1 + r - originX) / cellSize));
+  const r0 = Math.max(0, Math.floor((y0 - r - originY) / cellSize));
+  const r1 = Math.min(rows - 1, Math.floor((y1 + r - originY) / cellSize));
+  for (let row = r0; row <= r1; row++) {
+    for (let col = c0; col <= c1; col++) {
+      const b = row * cols + col;
+      for (let i = bucketStart[b]; i < bucketStart[b + 1]; i++) {
+        visit(bucketTables[i]);
+      }
+    }
+  }
+}
+
+function levelOfDetail(layout, scale) {
+  if (layout.seatRadius * scale >= DETAIL_MIN_SEAT_PX) {
+    return 'detail';
+  }
+  return layout.tableRadius * scale >= PIE_MIN_TABLE_PX ? 'pie' : 'dot';
+}
+
+function applyViewTransform(state) {
+  const { ctx, view, dpr } = state;
+  const k = view.scale * dpr;
+  ctx.setTransform(k, 0, 0, k, -view.x * k, -view.y * k);
+}
+
+function visibleRect(state) {
+  const { view, width, height } = state;
+  return [view.x, view.y, view.x + width / view.scale, view.y + height / view.scale];
+}
+
+function render(state) {
+  state.frame = 0;
+  const { ctx, layout, dpr } = state;
+  ctx.setTransform(1, 0, 0, 1, 0, 0);
+  ctx.clearRect(0, 0, state.canvas.width, state.canvas.height);
+  if (!layout) {
+    return;
+  }
+  applyViewTransform(state);
+  drawStage(ctx);
+
+  const [x0, y0, x1, y1] = visibleRect(state);
+  const lod = levelOfDetail(layout, state.view.scale);
+  if (lod === 'detail') {
+    forEachTableIn(layout, x0, y0, x1, y1, t => drawDetailedTable(layout, ctx, t));
+  } else if (lod === 'pie') {
+    forEachTableIn(layout, x0, y0, x1, y1, t => drawPie(layout, ctx, t));
+  } else if (layout.overview) {
+    drawOverview(ctx, layout, null);
+  } else {
+    drawDots(state, x0, y0, x1, y1);
+  }
+
+  ctx.setTransform(dpr, 0, 0, dpr, 0, 0);
+  drawLegend(ctx);
+}
+
+// fallback for venues too spread out for an overview bitmap: one pass over the tables in view, one fill per color
+function drawDots(state, x0, y0, x1, y1) {
+  const { ctx, layout } = state;
+  const size = Math.max(layout.pieRadius * 2, 2 / state.view.scale);
+  const half = size / 2;
+  const byCode = CODE_RGB.map(() => []);
+  forEachTableIn(layout, x0, y0, x1, y1, t => byCode[dominantCode(layout, t)].push(t));
+  byCode.forEach((tables, code) => {
+    if (tables.length === 0) {
+      return;
+    }
+    ctx.beginPath();
+    tables.forEach(t => ctx.rect(layout.tableXs[t] - half, layout.tableYs[t] - half, size, size));
+    ctx.fillStyle = code < CODES.length ? CODE_COLORS[code] : 'orange';
+    ctx.fill();
+  });
+}
+
+function scheduleRender(state) {
+  if (!state.frame) {
+    state.frame = requestAnimationFrame(() => render(state));
+  }
+}
+
+function fitScale(state) {
+  const { bounds } = state.layout;
+  return Math.min(state.width / (bounds.maxX - bounds.minX), state.height / (bounds.maxY - bounds.minY));
+}
+
+function fitView(state) {
+  const { bounds } = state.layout;
+  const scale = Math.min(1, fitScale(state));
+  state.view = { scale, x: bounds.minX, y: bounds.minY };
+}
+
+function zoomAt(state, px, py, factor) {
+  const { view } = state;
+  const minScale = Math.min(1, fitScale(state)) / 2;
+  const scale = Math.min(MAX_SCALE, Math.max(minScale, view.scale * factor));
+  // keep the world point under the cursor where it is
+  const wx = view.x + px / view.scale;
+  const wy = view.y + py / view.scale;
+  state.view = { scale, x: wx - px / scale, y: wy - py / scale };
+  scheduleRender(state);
+}
+
+function resize(state) {
+  const { canvas } = state;
+  state.dpr = window.devicePixelRatio || 1;
+  state.width = canvas.clientWidth || window.innerWidth;
+  state.height = canvas.clientHeight || window.innerHeight;
+  canvas.width = Math.round(state.width * state.dpr);
+  canvas.height = Math.round(state.height * state.dpr);
+  render(state);
+}
+
+function install(canvas) {
+  const state = {
+    canvas,
+    ctx: canvas.getContext('2d'),
+    view: { scale: 1, x: 0, y: 0 },
+    dpr: 1,
+    width: 0,
+    height: 0,
+    frame: 0,
+    layout: null
+  };
+  let drag = null;
+  canvas.addEventListener('pointerdown', e => {
+    drag = { x: e.clientX, y: e.clientY };
+    canvas.setPointerCapture(e.pointerId);
+  });
+  canvas.addEventListener('pointermove', e => {
+    if (!drag) {
+      return;
+    }
+    const { view } = state;
+    state.view = { scale: view.scale, x: view.x - (e.clientX - drag.x) / view.scale, y: view.y - (e.clientY - drag.y) / view.scale };
+    drag = { x: e.clientX, y: e.clientY };
+    scheduleRender(state);
+  });
+  const endDrag = () => {
+    drag = null;
+  };
+  canvas.addEventListener('pointerup', endDrag);
+  canvas.addEventListener('pointercancel', endDrag);
+  canvas.addEventListener('wheel', e => {
+    e.preventDefault();
+    const box = canvas.getBoundingClientRect();
+    zoomAt(state, e.clientX - box.left, e.clientY - box.top, Math.exp(-e.deltaY * ZOOM_SPEED));
+  }, { passive: false });
+  canvas.addEventListener('dblclick', () => {
+    if (state.layout) {
+      fitView(state);
+      scheduleRender(state);
+    }
+  });
+  new ResizeObserver(() => resize(state)).observe(canvas);
+  canvas.$seatLayout = state;
+  return state;
+}
+
+function draw(canvas, data) {
+  const state = canvas.$seatLayout || install(canvas);
+  state.layout = buildLayout(data);
+  resize(state);
+}
+
+/*
+ * Repaints just the touched tables in place: the changed seats when seats are shown, otherwise the table's pie
+ * or dot. Falls back to a frame when a touched table sits under the legend.
+ */
+function update(canvas, indexes, status) {
+  const state = canvas.$seatLayout;
+  const layout = state && state.layout;
+  if (!layout) {
+    return;
+  }
+  const touched = new Set();
+  for (let i = 0; i < indexes.length; i++) {
+    const seat = indexes[i];
+    if (seat >= layout.seatNos.length) {
+      continue;
+    }
+    const t = layout.seatTable[seat];
+    const code = Math.max(0, CODES.indexOf(status[i]));
+    layout.tableCounts[t * CODES.length + layout.status[seat]]--;
+    layout.tableCounts[t * CODES.length + code]++;
+    layout.status[seat] = code;
+    touched.add(seat);
+  }
+  if (layout.overview) {
+    // the overview stays current at every zoom, it is what a zoom out shows next
+    const { ctx: overviewCtx, image, cellXs, cellYs } = layout.overview;
+    new Set(Array.from(touched, seat => layout.seatTable[seat])).forEach(t => {
+      paintOverviewCell(layout, layout.overview, t);
+      overviewCtx.putImageData(image, 0, 0, cellXs[t] * OVERVIEW_PX, cellYs[t] * OVERVIEW_PX, OVERVIEW_PX, OVERVIEW_PX);
+    });
+  }
+  if (touched.size === 0 || state.frame) {
+    return;
+  }
+
+  const { ctx, view } = state;
+  const [x0, y0, x1, y1] = visibleRect(state);
+  const r = layout.extent;
+  const legendRight = view.x + LEGEND_BOX.width / view.scale;
+  const legendBottom = view.y + (LEGEND_BOX.y + LEGEND_BOX.height) / view.scale;
+  const lod = levelOfDetail(layout, view.scale);
+  const tables = new Set();
+  for (const seat of touched) {
+    const t = layout.seatTable[seat];
+    const cx = layout.tableXs[t];
+    const cy = layout.tableYs[t];
+    if (cx + r < x0 || cx - r > x1 || cy + r < y0 || cy - r > y1) {
+      continue;
+    }
+    if (cx - r < legendRight && cy - r < legendBottom) {
+      scheduleRender(state);
+      return;
+    }
+    tables.add(t);
+  }
+
+  applyViewTransform(state);
+  if (lod === 'detail') {
+    for (const seat of touched) {
+      if (tables.has(layout.seatTable[seat])) {
+        drawSeat(ctx, layout.seatXs[seat], layout.seatYs[seat], layout.seatRadius, layout.seatNos[seat],
+            CODE_COLORS[layout.status[seat]]);
+      }
+    }
+  } else if (lod === 'pie') {
+    tables.forEach(t => drawPie(layout, ctx, t));
+  } else if (layout.overview) {
+    drawOverview(ctx, layout, tables);
+  } else {
+    const size = Math.max(layout.pieRadius * 2, 2 / view.scale);
+    tables.forEach(t => {
+      const code = dominantCode(layout, t);
+      ctx.fillStyle = code < CODES.length ? CODE_COLORS[code] : 'orange';
+      ctx.fillRect(layout.tableXs[t] - size / 2, layout.tableYs[t] - size / 2, size, size);
+    });
+  }
+}
+
+window.SeatCanvasRenderer = { draw, update };
@@ -0,0 +1,93 @@
+/*
+ * Keyboard-wedge scanner input for a text field. USB and Bluetooth barcode scanners "type" a code and press Enter
+ * faster than anyone types, so a run of at least minLength keys with at most maxGapMs between them, ended by
+ * Enter, is taken as a scan: it is sent to the server with one call, the field is cleared and the Enter does not
+ * reach any other listener. Slower typing is left alone.
+ *
+ * pin(field, true) keeps the focus on the field: whenever it is lost to nothing in particular (the page body,
+ * a closed dialog, the window regaining focus) the field takes it back, so a gate needs no clicks between scans.
+ */
+
+// a scanner's Enter may trail its last character a little more than the characters trail each other
+const ENTER_GAP_FACTOR = 3;
+const PIN_CHECK_MS = 1000;
+
+function attach(field, view, maxGapMs, minLength) {
+  detach(field);
+  const state = { buffer: '', last: 0 };
+
+  const onKeyDown = e => {
+    const now = performance.now();
+    if (e.key === 'Enter') {
+      const code = state.buffer;
+      const isScan = code.length >= minLength && now - state.last <= maxGapMs * ENTER_GAP_FACTOR;
+      state.buffer = '';
+      if (isScan) {
+        e.preventDefault();
+        e.stopImmediatePropagation();
+        field.value = '';
+        view.$server.onWedgeScan(code);
+      }
+      return;
+    }
+    if (e.key.length !== 1 || e.ctrlKey || e.altKey || e.metaKey) {
+      return;
+    }
+    // a pause starts a new run, so the buffer only ever holds keys typed at scanner speed
+    state.buffer = now - state.last <= maxGapMs ? state.buffer + e.key : e.key;
+    state.last = now;
+  };
+
+  // capture, so a scan is seen and stopped before shortcut listeners on the field
+  field.addEventListener('keydown', onKeyDown, true);
+  field.$wedge = { onKeyDown, pinned: field.$wedge ? field.$wedge.pinned : false };
+  if (field.$wedge.pinned) {
+    pin(field, true);
+  }
+}
+
+function detach(field) {
+  if (!field.$wedge) {
+    return;
+  }
+  field.removeEventListener('keydown', field.$wedge.onKeyDown, true);
+  unpin(field);
+}
+
+function pin(field, on) {
+  if (!field.$wedge) {
+    return;
+  }
+  unpin(field);
+  field.$wedge.pinned = on;
+  if (!on) {
+    return;
+  }
+  const refocus = () => {
+    const active = document.activeElement;
+    // only take the focus back from nothing in particular, never from another field the operator moved to
+    if (field.isConnected && (!active || active === document.body)) {
+      field.focus();
+    }
+  };
+  const onFocusOut = () => setTimeout(refocus, 0);
+  field.addEventListener('focusout', onFocusOut);
+  window.addEventListener('focus', refocus);
+  // dialogs closing and other focus changes outside the field do not always raise an event here
+  const timer = setInterval(refocus, PIN_CHECK_MS);
+  field.$wedge.unpin = () => {
+    field.removeEventListener('focusout', onFocusOut);
+    window.removeEventListener('focus', refocus);
+    clearInterval(timer);
+  };
+  field.focus();
+}
+
+function unpin(field) {
+  if (field.$wedge && field.$wedge.unpin) {
+    field.$wedge.unpin();
+    field.$wedge.unpin = null;
+  }
+}
+
+window.WedgeScanner = { attach, detach, pin };
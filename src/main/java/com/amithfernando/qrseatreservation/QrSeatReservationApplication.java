@@ -1,10 +1,13 @@
 package com.amithfernando.qrseatreservation;
 
+import com.vaadin.flow.component.page.AppShellConfigurator;
+import com.vaadin.flow.component.page.Push;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
 @SpringBootApplication
-public class QrSeatReservationApplication {
+@Push
+public class QrSeatReservationApplication implements AppShellConfigurator {
 
     public static void main(String[] args) {
         SpringApplication.run(QrSeatReservationApplication.class, args);
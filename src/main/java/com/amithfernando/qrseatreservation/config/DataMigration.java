@@ -0,0 +1,85 @@
+package com.amithfernando.qrseatreservation.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Statement;
+
+// One-off schema moves that ddl-auto: update cannot do on its own
+@Configuration
+@Slf4j
+public class DataMigration {
+
+    private static final int TICKET_IMAGE_CHUNK = 500;
+
+    // Ticket images used to live in ticket.data; copy them to ticket_image in id chunks, then drop the column
+    @Bean
+    CommandLineRunner migrateTicketImages(JdbcTemplate jdbc) {
+        return args -> {
+            Integer hasColumn = jdbc.queryForObject(
+                    "SELECT COUNT(*) FROM information_schema.columns " +
+                    "WHERE table_schema = DATABASE() AND table_name = 'ticket' AND column_name = 'data'",
+                    Integer.class);
+            if (hasColumn == null || hasColumn == 0) {
+                return;
+            }
+            Long maxId = jdbc.queryForObject("SELECT MAX(id) FROM ticket", Long.class);
+            long copied = 0;
+            for (long from = 0; maxId != null && from <= maxId; from += TICKET_IMAGE_CHUNK) {
+                copied += jdbc.update(
+                        "INSERT INTO ticket_image (ticket_id, data) " +
+                        "SELECT t.id, t.data FROM ticket t " +
+                        "WHERE t.id >= ? AND t.id < ? AND t.data IS NOT NULL " +
+                        "AND NOT EXISTS (SELECT 1 FROM ticket_image i WHERE i.ticket_id = t.id)",
+                        from, from + TICKET_IMAGE_CHUNK);
+            }
+            jdbc.execute("ALTER TABLE ticket DROP COLUMN data");
+            log.info("Moved {} ticket images to ticket_image and dropped ticket.data", copied);
+        };
+    }
+
+    // seat_reservation ids went from IDENTITY to a sequence table and back; a table created in between has no
+    // AUTO_INCREMENT, which ddl-auto: update does not add. MySQL starts the counter past the existing ids.
+    @Bean
+    CommandLineRunner restoreSeatReservationAutoIncrement(JdbcTemplate jdbc) {
+        return args -> {
+            Integer missing = jdbc.queryForObject(
+                    "SELECT COUNT(*) FROM information_schema.columns " +
+                    "WHERE table_schema = DATABASE() AND table_name = 'seat_reservation' AND column_name = 'id' " +
+                    "AND extra NOT LIKE '%auto_increment%'",
+                    Integer.class);
+            if (missing == null || missing == 0) {
+                return;
+            }
+            // one connection, so the join table's foreign key on the id is off for exactly this statement
+            jdbc.execute((ConnectionCallback<Void>) connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SET foreign_key_checks = 0");
+                    try {
+                        statement.execute("ALTER TABLE seat_reservation MODIFY id BIGINT NOT NULL AUTO_INCREMENT");
+                    } finally {
+                        statement.execute("SET foreign_key_checks = 1");
+                    }
+                }
+                return null;
+            });
+            jdbc.execute("DROP TABLE IF EXISTS seat_reservation_seq");
+            log.info("Restored AUTO_INCREMENT on seat_reservation.id and dropped seat_reservation_seq");
+        };
+    }
+
+    // ticket moved from IDENTITY to a pooled sequence table; keep the sequence ahead of existing ids
+    @Bean
+    CommandLineRunner alignTicketSequence(JdbcTemplate jdbc) {
+        return args -> {
+            int updated = jdbc.update(
+                    "UPDATE ticket_seq SET next_val = " +
+                    "GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 51 FROM ticket))");
+            log.info("ticket_seq aligned ({} row)", updated);
+        };
+    }
+}
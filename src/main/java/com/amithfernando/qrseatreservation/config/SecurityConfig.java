@@ -43,6 +43,8 @@ public class SecurityConfig extends VaadinWebSecurity {
         http.authorizeHttpRequests(auth -> auth
                 .requestMatchers("/login", "/login/**").permitAll()
                 .requestMatchers("/qr", "/qr/**").hasAnyRole("ADMIN", "ENTRANCE")
+                .requestMatchers("/layout/**").hasAnyRole("ADMIN", "ENTRANCE")
+                .requestMatchers("/metrics/**").hasAnyRole("ADMIN", "ENTRANCE")
         );
 
         // Let Vaadin configure internal endpoints and finalize the chain
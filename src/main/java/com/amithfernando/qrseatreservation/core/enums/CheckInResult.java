@@ -0,0 +1,6 @@
+package com.amithfernando.qrseatreservation.core.enums;
+
+public enum CheckInResult {
+
+    CHECKED_IN, ALREADY_CHECKED_IN, NOT_PAID, UNKNOWN
+}
@@ -0,0 +1,5 @@
+package com.amithfernando.qrseatreservation.core.event;
+
+// Tables (and with them seats) were added to or removed from the venue
+public record SeatLayoutChangedEvent(String tableName) {
+}
@@ -0,0 +1,23 @@
+package com.amithfernando.qrseatreservation.core.event;
+
+import com.amithfernando.qrseatreservation.core.enums.SeatStatus;
+
+import java.util.Collection;
+import java.util.List;
+
+// Seats that moved to status, named by seat id or, where the writer only knows the ticket (check-in), by ticket no
+public record SeatStatusChangedEvent(List<Long> seatIds, List<String> ticketNos, SeatStatus status) {
+
+    public SeatStatusChangedEvent {
+        seatIds = List.copyOf(seatIds);
+        ticketNos = List.copyOf(ticketNos);
+    }
+
+    public static SeatStatusChangedEvent forSeats(Collection<Long> seatIds, SeatStatus status) {
+        return new SeatStatusChangedEvent(List.copyOf(seatIds), List.of(), status);
+    }
+
+    public static SeatStatusChangedEvent forTickets(Collection<String> ticketNos, SeatStatus status) {
+        return new SeatStatusChangedEvent(List.of(), List.copyOf(ticketNos), status);
+    }
+}
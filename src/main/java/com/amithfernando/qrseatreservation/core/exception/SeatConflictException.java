@@ -0,0 +1,17 @@
+package com.amithfernando.qrseatreservation.core.exception;
+
+import lombok.Getter;
+
+import java.util.List;
+
+// Thrown when seats picked for a reservation were booked by someone else first; nothing is saved
+@Getter
+public class SeatConflictException extends RuntimeException {
+
+    private final List<String> seatNos;
+
+    public SeatConflictException(String message, List<String> seatNos) {
+        super(message + ": " + String.join(", ", seatNos));
+        this.seatNos = List.copyOf(seatNos);
+    }
+}
@@ -10,6 +10,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -29,6 +30,10 @@ public class SeatDetail {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+    // optimistic lock: concurrent bookings of the same seat cannot both win
+    @Version
+    @Column(columnDefinition = "bigint not null default 0")
+    private long version;
     private String seatNo;
     @Enumerated(jakarta.persistence.EnumType.STRING)
     private SeatStatus seatStatus;
@@ -28,16 +28,23 @@ import lombok.NoArgsConstructor;
 @Builder
 public class SeatReservation {
 
+    // IDENTITY, not a pooled sequence: on MySQL the sequence is a table Hibernate advances on a second pooled
+    // connection while concurrent bookings wait on the generator holding theirs, which can starve the pool.
+    // A booking inserts only a few seat reservations, so they go without JDBC batching.
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     @ManyToOne
     private SeatDetail seatDetail;
+    @Column(unique = true)
     private String ticketNo;
     @Enumerated(EnumType.STRING)
     private TicketType ticketType;
     @Enumerated(EnumType.STRING)
     private ReservationStatus reservationStatus;
+    // when and at which gate the ticket was checked in; the gate is empty for online check-ins
+    private LocalDateTime checkedInAt;
+    private String checkInGate;
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
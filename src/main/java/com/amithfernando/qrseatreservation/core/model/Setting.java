@@ -46,6 +46,13 @@ public class Setting {
     private String ticketPrefix;
     private Integer noOfDigits;
     private Integer maxNoOfTickets;
+    // ticket numbering state, only written through SettingRepository.updateTicketNumbering so a settings
+    // form saved with a stale copy cannot roll the index back
+    @Column(updatable = false)
+    @ToString.Exclude
+    private Long ticketKey;
+    @Column(updatable = false)
+    private Long nextTicketIndex;
 
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -7,15 +7,16 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.Lob;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.sql.Blob;
 import java.time.LocalDateTime;
 
 @Entity
@@ -23,18 +24,20 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@Table(indexes = @Index(name = "idx_ticket_status", columnList = "status, id"))
 public class Ticket {
 
+    // pooled SEQUENCE instead of IDENTITY so generated tickets and their cascaded images are JDBC-batched.
+    // Only the generation run's persisting thread draws from it, so the extra connection the sequence table
+    // takes on MySQL cannot starve the pool (unlike seat reservations, see SeatReservation).
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_seq")
+    @SequenceGenerator(name = "ticket_seq", sequenceName = "ticket_seq", allocationSize = 50)
     private Long id;
     @Column(unique = true, nullable = false)
     private String ticketNo;
     @Enumerated(jakarta.persistence.EnumType.STRING)
     private TicketStatus status;
-    @Lob
-    @Column(columnDefinition = "LONGBLOB")
-    private byte[] data;
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -57,9 +60,8 @@ public class Ticket {
     }
 
 
-    public Ticket(String ticketNo, TicketStatus status,byte[] data) {
+    public Ticket(String ticketNo, TicketStatus status) {
         this.ticketNo = ticketNo;
         this.status = status;
-        this.data = data;
     }
 }
@@ -0,0 +1,38 @@
+package com.amithfernando.qrseatreservation.core.model;
+
+import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Lob;
+import jakarta.persistence.MapsId;
+import jakarta.persistence.OneToOne;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+// Rendered ticket JPEG, kept apart from Ticket so metadata queries never carry the image
+@Entity
+@Data
+@NoArgsConstructor
+public class TicketImage {
+
+    @Id
+    private Long id;
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.PERSIST)
+    @JoinColumn(name = "ticket_id")
+    @ToString.Exclude
+    private Ticket ticket;
+    @Lob
+    @Column(columnDefinition = "LONGBLOB", nullable = false)
+    @ToString.Exclude
+    private byte[] data;
+
+    public TicketImage(Ticket ticket, byte[] data) {
+        this.ticket = ticket;
+        this.data = data;
+    }
+}
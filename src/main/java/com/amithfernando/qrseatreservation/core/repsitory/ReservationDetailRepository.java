@@ -1,14 +1,25 @@
 package com.amithfernando.qrseatreservation.core.repsitory;
 
+import com.amithfernando.qrseatreservation.core.enums.ReservationStatus;
 import com.amithfernando.qrseatreservation.core.model.ReservationDetail;
 import com.amithfernando.qrseatreservation.core.model.SellerDetail;
+import com.amithfernando.qrseatreservation.ui.dto.ReservationRow;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ReservationDetailRepository extends JpaRepository<ReservationDetail, Long> {
 
+    // pattern is a lower-case LIKE pattern ("%" matches every row), statuses the ones whose name matched the filter
+    String ROW_FILTER = "WHERE LOWER(rd.referenceNo) LIKE :pattern " +
+           "OR LOWER(s.name) LIKE :pattern " +
+           "OR LOWER(rd.description) LIKE :pattern " +
+           "OR rd.reservationStatus IN :statuses ";
+
     @Query("SELECT DISTINCT rd FROM ReservationDetail rd " +
            "LEFT JOIN FETCH rd.sellerDetail " +
            "LEFT JOIN FETCH rd.seatReservations sr " +
@@ -16,10 +27,63 @@ public interface ReservationDetailRepository extends JpaRepository<ReservationDe
            "LEFT JOIN FETCH sd.tableDetail")
     List<ReservationDetail> findAllWithDetails();
 
+    // One page of grid rows; sort properties must use the rd/s aliases
+    @Query(value = "SELECT new com.amithfernando.qrseatreservation.ui.dto.ReservationRow(" +
+           "rd.id, rd.referenceNo, rd.reservationStatus, s.name, rd.description, MIN(td.tableName), COUNT(sr)) " +
+           "FROM ReservationDetail rd " +
+           "LEFT JOIN rd.sellerDetail s " +
+           "LEFT JOIN rd.seatReservations sr " +
+           "LEFT JOIN sr.seatDetail sd " +
+           "LEFT JOIN sd.tableDetail td " +
+           ROW_FILTER +
+           "GROUP BY rd.id, rd.referenceNo, rd.reservationStatus, s.name, rd.description")
+    List<ReservationRow> findRows(String pattern, Collection<ReservationStatus> statuses, Pageable pageable);
+
+    @Query("SELECT COUNT(rd) FROM ReservationDetail rd LEFT JOIN rd.sellerDetail s " + ROW_FILTER)
+    long countRows(String pattern, Collection<ReservationStatus> statuses);
+
+    @Query("SELECT DISTINCT rd FROM ReservationDetail rd " +
+           "LEFT JOIN FETCH rd.sellerDetail " +
+           "LEFT JOIN FETCH rd.seatReservations sr " +
+           "LEFT JOIN FETCH sr.seatDetail sd " +
+           "LEFT JOIN FETCH sd.tableDetail " +
+           "WHERE rd.id = :id")
+    Optional<ReservationDetail> findWithDetailsById(Long id);
+
     @Query("SELECT DISTINCT rd FROM ReservationDetail rd " +
            "JOIN rd.seatReservations sr " +
            "JOIN sr.seatDetail sd " +
            "JOIN sd.tableDetail td " +
            "WHERE td.id = :tableId")
     List<ReservationDetail> findByTableDetailId(Long tableId);
+
+    // Only the reservation owning the ticket is fetched (bounded by its seat count, not by the table size)
+    @Query("SELECT DISTINCT rd FROM ReservationDetail rd " +
+           "LEFT JOIN FETCH rd.sellerDetail " +
+           "LEFT JOIN FETCH rd.seatReservations sr " +
+           "LEFT JOIN FETCH sr.seatDetail sd " +
+           "LEFT JOIN FETCH sd.tableDetail " +
+           "WHERE rd.id = (SELECT r.id FROM ReservationDetail r JOIN r.seatReservations s WHERE s.ticketNo = :ticketNo)")
+    Optional<ReservationDetail> findByTicketNo(String ticketNo);
+
+    @Query("SELECT s.ticketNo FROM ReservationDetail rd JOIN rd.seatReservations s " +
+           "WHERE s.ticketNo IS NOT NULL ORDER BY s.ticketNo")
+    List<String> findAllTicketNos();
+
+    @Query("SELECT s.ticketNo FROM ReservationDetail rd JOIN rd.seatReservations s " +
+           "WHERE rd.sellerDetail.id = :sellerId AND s.ticketNo IS NOT NULL ORDER BY s.ticketNo")
+    List<String> findTicketNosBySellerId(Long sellerId);
+
+    // Dashboard row counts in a single round trip
+    @Query(value = "SELECT (SELECT COUNT(*) FROM reservation_detail) AS reservations, " +
+                   "(SELECT COUNT(*) FROM table_detail) AS tables, " +
+                   "(SELECT COUNT(*) FROM seller_detail) AS sellers",
+           nativeQuery = true)
+    DashboardTotals countDashboardTotals();
+
+    interface DashboardTotals {
+        long getReservations();
+        long getTables();
+        long getSellers();
+    }
 }
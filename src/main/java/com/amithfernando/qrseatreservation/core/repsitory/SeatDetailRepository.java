@@ -1,8 +1,43 @@
 package com.amithfernando.qrseatreservation.core.repsitory;
 
+import com.amithfernando.qrseatreservation.core.enums.SeatStatus;
 import com.amithfernando.qrseatreservation.core.model.SeatDetail;
 import com.amithfernando.qrseatreservation.core.model.TableDetail;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 public interface SeatDetailRepository extends JpaRepository<SeatDetail, Long> {
+
+    // Conditional bulk claim: only rows still in fromStatus are changed, so the returned count falls short
+    // of ids.size() when a concurrent booking got any of the seats first. Bumps the version like an entity update.
+    // Clears the persistence context, seats loaded before the claim are detached afterwards.
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE SeatDetail s SET s.seatStatus = :toStatus, s.version = s.version + 1, s.updatedAt = :now " +
+           "WHERE s.id IN :ids AND s.seatStatus = :fromStatus")
+    int claimSeats(Collection<Long> ids, SeatStatus fromStatus, SeatStatus toStatus, LocalDateTime now);
+
+    // One row per status that has seats, counted in the database instead of loading every table's seats
+    @Query("SELECT s.seatStatus AS status, COUNT(s) AS seats FROM SeatDetail s GROUP BY s.seatStatus")
+    List<SeatStatusCount> countBySeatStatus();
+
+    // Every seat as (seat, table, status), ordered by table then seat id; feeds the in-memory seat state index
+    @Query("SELECT s.id AS seatId, s.tableDetail.id AS tableId, s.seatStatus AS status FROM SeatDetail s " +
+           "ORDER BY s.tableDetail.id, s.id")
+    List<SeatState> findAllSeatStates();
+
+    interface SeatState {
+        Long getSeatId();
+        Long getTableId();
+        SeatStatus getStatus();
+    }
+
+    interface SeatStatusCount {
+        SeatStatus getStatus();
+        long getSeats();
+    }
 }
@@ -1,8 +1,69 @@
 package com.amithfernando.qrseatreservation.core.repsitory;
 
-import com.amithfernando.qrseatreservation.core.model.ReservationDetail;
+import com.amithfernando.qrseatreservation.core.enums.ReservationStatus;
 import com.amithfernando.qrseatreservation.core.model.SeatReservation;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface SeatReservationRepository extends JpaRepository<SeatReservation, Long> {
+
+    // Latest seat reservations in a status, newest first; the page size bounds the rows loaded
+    @Query("SELECT sr FROM SeatReservation sr " +
+           "LEFT JOIN FETCH sr.seatDetail sd " +
+           "LEFT JOIN FETCH sd.tableDetail " +
+           "WHERE sr.reservationStatus = :status " +
+           "ORDER BY sr.updatedAt DESC, sr.id DESC")
+    List<SeatReservation> findRecentByStatus(ReservationStatus status, Pageable pageable);
+
+    @Query("SELECT sr.seatDetail.id FROM SeatReservation sr WHERE sr.ticketNo IN :ticketNos")
+    List<Long> findSeatIdsByTicketNos(Collection<String> ticketNos);
+
+    @Query("SELECT sr.reservationStatus FROM SeatReservation sr WHERE sr.ticketNo = :ticketNo")
+    Optional<ReservationStatus> findStatusByTicketNo(String ticketNo);
+
+    // PAID -> CHECKED_IN for the seat reservation and its seat in one statement; the row lock makes
+    // concurrent scans of the same ticket serialize, and only the first one matches the PAID condition
+    @Modifying
+    @Query(value = "UPDATE seat_reservation sr JOIN seat_detail sd ON sd.id = sr.seat_detail_id " +
+                   "SET sr.reservation_status = 'CHECKED_IN', sr.checked_in_at = :now, sr.updated_at = :now, " +
+                   "sd.seat_status = 'CHECKED_IN', sd.version = sd.version + 1, sd.updated_at = :now " +
+                   "WHERE sr.ticket_no = :ticketNo AND sr.reservation_status = 'PAID'",
+           nativeQuery = true)
+    int checkInIfPaid(String ticketNo, LocalDateTime now);
+
+    // Every ticket with its status and where it sits; the snapshot a gate checks tickets against offline
+    @Query("SELECT sr.ticketNo AS ticketNo, sr.reservationStatus AS status, t.tableName AS tableName, " +
+           "sd.seatNo AS seatNo FROM SeatReservation sr " +
+           "LEFT JOIN sr.seatDetail sd " +
+           "LEFT JOIN sd.tableDetail t " +
+           "WHERE sr.ticketNo IS NOT NULL")
+    List<TicketState> findAllTicketStates();
+
+    // Applies a check-in recorded offline at a gate. A PAID ticket is checked in; an already checked-in ticket
+    // takes the earlier check-in, ties going to the lower gate id, so replaying journals from several gates in
+    // any order ends with the same row. Replaying the same entry again matches nothing.
+    @Modifying
+    @Query(value = "UPDATE seat_reservation sr JOIN seat_detail sd ON sd.id = sr.seat_detail_id " +
+                   "SET sr.reservation_status = 'CHECKED_IN', sr.checked_in_at = :checkedInAt, " +
+                   "sr.check_in_gate = :gateId, sr.updated_at = :now, " +
+                   "sd.seat_status = 'CHECKED_IN', sd.version = sd.version + 1, sd.updated_at = :now " +
+                   "WHERE sr.ticket_no = :ticketNo AND (sr.reservation_status = 'PAID' " +
+                   "OR (sr.reservation_status = 'CHECKED_IN' AND (sr.checked_in_at > :checkedInAt " +
+                   "OR (sr.checked_in_at = :checkedInAt AND sr.check_in_gate > :gateId))))",
+           nativeQuery = true)
+    int applyGateCheckIn(String ticketNo, String gateId, LocalDateTime checkedInAt, LocalDateTime now);
+
+    interface TicketState {
+        String getTicketNo();
+        ReservationStatus getStatus();
+        String getTableName();
+        String getSeatNo();
+    }
 }
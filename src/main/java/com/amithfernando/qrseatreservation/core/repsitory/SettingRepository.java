@@ -2,9 +2,44 @@ package com.amithfernando.qrseatreservation.core.repsitory;
 
 import com.amithfernando.qrseatreservation.core.model.Setting;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 
 public interface SettingRepository extends JpaRepository<Setting, Long> {
 
+    // Every column except the base image blob, oldest row first
+    @Query("SELECT s.id AS id, s.eventName AS eventName, s.venue AS venue, s.tableSize AS tableSize, " +
+           "s.seatSize AS seatSize, s.noOfColumns AS noOfColumns, s.fontSize AS fontSize, s.qrX AS qrX, s.qrY AS qrY, " +
+           "s.textX AS textX, s.textY AS textY, s.ticketPrefix AS ticketPrefix, s.noOfDigits AS noOfDigits, " +
+           "s.maxNoOfTickets AS maxNoOfTickets, s.ticketKey AS ticketKey, s.nextTicketIndex AS nextTicketIndex " +
+           "FROM Setting s ORDER BY s.id")
+    List<SettingFields> findAllFields();
+
+    @Query("SELECT s.baseImage FROM Setting s WHERE s.id = :id")
+    byte[] findBaseImageById(Long id);
+
+    @Modifying
+    @Query("UPDATE Setting s SET s.ticketKey = :ticketKey, s.nextTicketIndex = :nextTicketIndex WHERE s.id = :id")
+    int updateTicketNumbering(Long id, long ticketKey, long nextTicketIndex);
+
+    interface SettingFields {
+        Long getId();
+        String getEventName();
+        String getVenue();
+        int getTableSize();
+        int getSeatSize();
+        int getNoOfColumns();
+        int getFontSize();
+        int getQrX();
+        int getQrY();
+        int getTextX();
+        int getTextY();
+        String getTicketPrefix();
+        Integer getNoOfDigits();
+        Integer getMaxNoOfTickets();
+        Long getTicketKey();
+        Long getNextTicketIndex();
+    }
 }
@@ -1,7 +1,16 @@
 package com.amithfernando.qrseatreservation.core.repsitory;
 
 import com.amithfernando.qrseatreservation.core.model.TableDetail;
+import com.amithfernando.qrseatreservation.ui.dto.TableOption;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface TableDetailRepository extends JpaRepository<TableDetail, Long> {
+
+    // id, name and seat count only; the eager seat list of every table is not loaded
+    @Query("SELECT new com.amithfernando.qrseatreservation.ui.dto.TableOption(t.id, t.tableName, t.noOfSeats) " +
+           "FROM TableDetail t ORDER BY t.id")
+    List<TableOption> findTableOptions();
 }
@@ -0,0 +1,14 @@
+package com.amithfernando.qrseatreservation.core.repsitory;
+
+import com.amithfernando.qrseatreservation.core.model.TicketImage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface TicketImageRepository extends JpaRepository<TicketImage, Long> {
+
+    @Query("SELECT i FROM TicketImage i JOIN FETCH i.ticket t WHERE t.ticketNo IN :ticketNos")
+    List<TicketImage> findByTicketNoIn(Collection<String> ticketNos);
+}
@@ -3,7 +3,11 @@ package com.amithfernando.qrseatreservation.core.repsitory;
 import com.amithfernando.qrseatreservation.core.enums.TicketStatus;
 import com.amithfernando.qrseatreservation.core.model.Ticket;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface TicketRepository extends JpaRepository<Ticket, Long> {
@@ -11,4 +15,18 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
     Ticket findByTicketNo(String ticketNo);
 
     List<Ticket> findTcicketByStatus(TicketStatus status);
+
+    @Query("SELECT t.ticketNo FROM Ticket t")
+    List<String> findAllTicketNos();
+
+    // Locks up to :count AVAILABLE tickets, skipping rows already locked by a concurrent allocation.
+    // Only the ticket number is selected, the image column is never read.
+    @Query(value = "SELECT t.ticket_no FROM ticket t WHERE t.status = 'AVAILABLE' " +
+                   "ORDER BY t.id LIMIT :count FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<String> lockAvailableTicketNos(int count);
+
+    @Modifying
+    @Query("UPDATE Ticket t SET t.status = :status, t.updatedAt = :now WHERE t.ticketNo IN :ticketNos")
+    int updateStatus(Collection<String> ticketNos, TicketStatus status, LocalDateTime now);
 }
@@ -0,0 +1,97 @@
+package com.amithfernando.qrseatreservation.core.service;
+
+import com.amithfernando.qrseatreservation.core.enums.CheckInResult;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Check-in outcomes per lane (a gate id), with guests admitted per second kept for the last five minutes,
+ * so gate throughput in guests per minute can be read while doors are open. In memory and per node.
+ */
+@Service
+public class CheckInMetrics {
+
+    private static final int SECONDS_KEPT = 300;
+
+    private final LongSupplier clock;
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+
+    public CheckInMetrics() {
+        this(System::currentTimeMillis);
+    }
+
+    CheckInMetrics(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public void record(String lane, CheckInResult result) {
+        lanes.computeIfAbsent(lane, name -> new Lane()).record(clock.getAsLong() / 1000, result);
+    }
+
+    public LaneStats stats(String lane) {
+        Lane counters = lanes.get(lane);
+        return counters == null ? LaneStats.empty(lane) : counters.stats(lane, clock.getAsLong() / 1000);
+    }
+
+    public List<LaneStats> allStats() {
+        long second = clock.getAsLong() / 1000;
+        List<LaneStats> stats = new ArrayList<>();
+        lanes.forEach((name, lane) -> stats.add(lane.stats(name, second)));
+        stats.sort(Comparator.comparing(LaneStats::lane));
+        return stats;
+    }
+
+    private static final class Lane {
+
+        private final Map<CheckInResult, Long> totals = new EnumMap<>(CheckInResult.class);
+        // admitted guests per second, slot second % SECONDS_KEPT, valid while stamped with that second
+        private final long[] admitted = new long[SECONDS_KEPT];
+        private final long[] stamps = new long[SECONDS_KEPT];
+
+        synchronized void record(long second, CheckInResult result) {
+            totals.merge(result, 1L, Long::sum);
+            if (result == CheckInResult.CHECKED_IN) {
+                int slot = (int) (second % SECONDS_KEPT);
+                if (stamps[slot] != second) {
+                    stamps[slot] = second;
+                    admitted[slot] = 0;
+                }
+                admitted[slot]++;
+            }
+        }
+
+        // the current second is still filling, windows end at the last complete one
+        synchronized LaneStats stats(String name, long now) {
+            return new LaneStats(name, new EnumMap<>(totals), admittedSince(now - 60, now),
+                    admittedSince(now - SECONDS_KEPT, now) / 5.0);
+        }
+
+        private long admittedSince(long from, long now) {
+            long sum = 0;
+            for (int slot = 0; slot < SECONDS_KEPT; slot++) {
+                if (stamps[slot] >= from && stamps[slot] < now) {
+                    sum += admitted[slot];
+                }
+            }
+            return sum;
+        }
+    }
+
+    /**
+     * @param lastMinute       guests admitted in the last full minute
+     * @param perMinuteFiveMin guests per minute averaged over the last five minutes
+     */
+    public record LaneStats(String lane, Map<CheckInResult, Long> totals, long lastMinute, double perMinuteFiveMin) {
+
+        static LaneStats empty(String lane) {
+            return new LaneStats(lane, Map.of(), 0, 0);
+        }
+    }
+}
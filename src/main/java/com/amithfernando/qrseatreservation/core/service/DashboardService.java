@@ -0,0 +1,83 @@
+package com.amithfernando.qrseatreservation.core.service;
+
+import com.amithfernando.qrseatreservation.core.enums.SeatStatus;
+import com.amithfernando.qrseatreservation.core.repsitory.ReservationDetailRepository;
+import com.amithfernando.qrseatreservation.core.repsitory.SeatDetailRepository;
+import com.amithfernando.qrseatreservation.ui.dto.DashboardSummary;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Dashboard counts for HomeView and CheckingView: one grouped seat-status count and one row-count query,
+ * independent of venue size. The result is shared for a few seconds, so many open dashboards cost
+ * the same as one.
+ */
+@Service
+@Slf4j
+public class DashboardService {
+
+    private final ReservationDetailRepository reservationDetailRepository;
+    private final SeatDetailRepository seatDetailRepository;
+    private final LongSupplier nanoClock;
+    private final long cacheSeconds;
+    private final AtomicReference<Cached> cached = new AtomicReference<>();
+
+    @Autowired
+    public DashboardService(ReservationDetailRepository reservationDetailRepository, SeatDetailRepository seatDetailRepository,
+                            @Value("${settings.dashboard.cacheSeconds:5}") long cacheSeconds) {
+        this(reservationDetailRepository, seatDetailRepository, cacheSeconds, System::nanoTime);
+    }
+
+    DashboardService(ReservationDetailRepository reservationDetailRepository, SeatDetailRepository seatDetailRepository,
+                     long cacheSeconds, LongSupplier nanoClock) {
+        this.reservationDetailRepository = reservationDetailRepository;
+        this.seatDetailRepository = seatDetailRepository;
+        this.cacheSeconds = cacheSeconds;
+        this.nanoClock = nanoClock;
+    }
+
+    public DashboardSummary getSummary() {
+        long now = nanoClock.getAsLong();
+        Cached current = cached.get();
+        if (current != null && now - current.loadedAt() < TimeUnit.SECONDS.toNanos(cacheSeconds)) {
+            return current.summary();
+        }
+        // concurrent misses may both load, the last one wins; both results are equally fresh
+        DashboardSummary summary = load();
+        cached.set(new Cached(summary, now));
+        return summary;
+    }
+
+    // Drops the cached summary, e.g. after a check-in the operator expects to see counted immediately
+    public void invalidate() {
+        cached.set(null);
+    }
+
+    private DashboardSummary load() {
+        Map<SeatStatus, Long> seats = new EnumMap<>(SeatStatus.class);
+        // seats without a status are not available and not counted, as in SeatDetail.isAvailable()
+        seatDetailRepository.countBySeatStatus().stream()
+                .filter(c -> c.getStatus() != null)
+                .forEach(c -> seats.put(c.getStatus(), c.getSeats()));
+        ReservationDetailRepository.DashboardTotals totals = reservationDetailRepository.countDashboardTotals();
+        return new DashboardSummary(
+                totals.getReservations(),
+                totals.getTables(),
+                totals.getSellers(),
+                seats.getOrDefault(SeatStatus.AVAILABLE, 0L),
+                seats.getOrDefault(SeatStatus.RESERVED, 0L),
+                seats.getOrDefault(SeatStatus.CHECKED_IN, 0L),
+                seats.getOrDefault(SeatStatus.UNAVAILABLE, 0L));
+    }
+
+    private record Cached(DashboardSummary summary, long loadedAt) {
+    }
+}
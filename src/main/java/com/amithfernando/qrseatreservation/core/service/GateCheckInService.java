@@ -0,0 +1,268 @@
+package com.amithfernando.qrseatreservation.core.service;
+
+import com.amithfernando.qrseatreservation.core.enums.CheckInResult;
+import com.amithfernando.qrseatreservation.core.enums.ReservationStatus;
+import com.amithfernando.qrseatreservation.core.repsitory.SeatReservationRepository;
+import com.amithfernando.qrseatreservation.core.util.CheckInJournal;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Gate mode for check-in: scans are answered from an in-memory snapshot of every ticket and its paid state, and
+ * check-ins are recorded in a local journal on the gate node, so a scan never waits for the database.
+ * A background task replays the journal into the database whenever it is reachable and then refreshes the snapshot;
+ * the snapshot is also kept on disk so a gate restarted while the database is down still knows its tickets.
+ * Tickets checked in at two gates resolve to the earliest check-in, then the lowest gate id (see applyGateCheckIn).
+ */
+@Service
+@Slf4j
+public class GateCheckInService {
+
+    private static final int REPLAY_BATCH = 200;
+
+    private final ReservationService reservationService;
+    private final LongSupplier clock;
+    private final ReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+    private volatile Map<String, GateTicket> tickets = Map.of();
+    private CheckInJournal journal;
+    private ScheduledExecutorService syncer;
+    @Getter
+    private volatile Instant lastSync;
+
+    @Getter
+    @Value("${settings.gate.enabled:false}")
+    private boolean enabled;
+    @Getter
+    @Value("${settings.gate.id:gate-1}")
+    private String gateId;
+    @Value("${settings.gate.journalDir:gate-journal}")
+    private String journalDir;
+    @Value("${settings.gate.syncSeconds:5}")
+    private long syncSeconds;
+
+    public GateCheckInService(ReservationService reservationService) {
+        this(reservationService, System::currentTimeMillis);
+    }
+
+    GateCheckInService(ReservationService reservationService, LongSupplier clock) {
+        this.reservationService = reservationService;
+        this.clock = clock;
+    }
+
+    GateCheckInService(ReservationService reservationService, String gateId, Path journalDir, LongSupplier clock) {
+        this(reservationService, clock);
+        this.enabled = true;
+        this.gateId = gateId;
+        this.journalDir = journalDir.toString();
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        open();
+        syncer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "gate-journal-sync");
+            t.setDaemon(true);
+            return t;
+        });
+        syncer.scheduleWithFixedDelay(this::sync, syncSeconds, syncSeconds, TimeUnit.SECONDS);
+        log.info("Gate mode on as {}, journal in {}, synced every {} s", gateId, journalDir, syncSeconds);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (syncer != null) {
+            syncer.shutdownNow();
+        }
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    // journal recovered, snapshot from the database or else from the last one saved, pending check-ins laid over it
+    void open() throws IOException {
+        journal = new CheckInJournal(Path.of(journalDir));
+        try {
+            refreshSnapshot();
+        } catch (RuntimeException e) {
+            log.warn("Database not reachable at gate start, using the saved ticket snapshot: {}", e.getMessage());
+            Map<String, GateTicket> saved = readSnapshotFile();
+            overlayPending(saved);
+            tickets = saved;
+        }
+    }
+
+    public Optional<GateTicket> find(String ticketNo) {
+        return ticketNo == null ? Optional.empty() : Optional.ofNullable(tickets.get(ticketNo.trim()));
+    }
+
+    /**
+     * Checks the ticket in against the snapshot and journals it; returns once the journal line is on disk.
+     * Only the first scan of a ticket at this gate gets CHECKED_IN.
+     */
+    public CheckInResult checkIn(String ticketNo) {
+        if (ticketNo == null || ticketNo.isBlank()) return CheckInResult.UNKNOWN;
+        String key = ticketNo.trim();
+        snapshotLock.readLock().lock();
+        try {
+            Map<String, GateTicket> current = tickets;
+            GateTicket ticket = current.get(key);
+            if (ticket == null) return CheckInResult.UNKNOWN;
+            if (ticket.status() == ReservationStatus.CHECKED_IN) return CheckInResult.ALREADY_CHECKED_IN;
+            if (ticket.status() != ReservationStatus.PAID) return CheckInResult.NOT_PAID;
+            GateTicket checkedIn = ticket.withStatus(ReservationStatus.CHECKED_IN);
+            if (!current.replace(key, ticket, checkedIn)) {
+                return CheckInResult.ALREADY_CHECKED_IN;
+            }
+            try {
+                journal.append(new CheckInJournal.Entry(key, gateId, clock.getAsLong()));
+            } catch (IOException e) {
+                // not recorded, so not checked in; the guest can be scanned again
+                current.replace(key, checkedIn, ticket);
+                throw new UncheckedIOException(e);
+            }
+            log.info("Checked-in ticket {} at gate {}", key, gateId);
+            return CheckInResult.CHECKED_IN;
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    // journal bytes not yet replayed into the database
+    public long pendingBytes() {
+        try {
+            return journal == null ? 0 : journal.size() - journal.replayedOffset();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    // Replays the journal, then reloads the snapshot; a database failure just leaves the rest for the next run
+    void sync() {
+        try {
+            replayJournal();
+            journal.truncateIfReplayed();
+            refreshSnapshot();
+            lastSync = Instant.ofEpochMilli(clock.getAsLong());
+        } catch (Exception e) {
+            log.warn("Gate {} could not sync with the database, {} journal bytes pending: {}",
+                    gateId, pendingBytes(), e.getMessage());
+        }
+    }
+
+    int replayJournal() throws IOException {
+        int replayed = 0;
+        long offset = journal.replayedOffset();
+        while (true) {
+            CheckInJournal.Chunk chunk = journal.read(offset, REPLAY_BATCH);
+            if (chunk.entries().isEmpty()) {
+                return replayed;
+            }
+            // the offset is stored after every batch; a crash in between replays the batch again, which is a no-op
+            for (CheckInJournal.Entry entry : chunk.entries()) {
+                boolean applied = reservationService.applyGateCheckIn(entry.ticketNo(), entry.gateId(),
+                        LocalDateTime.ofInstant(Instant.ofEpochMilli(entry.epochMillis()), ZoneId.systemDefault()));
+                if (!applied) {
+                    log.info("Gate check-in of {} at {} kept the earlier check-in", entry.ticketNo(), entry.gateId());
+                }
+            }
+            offset = chunk.endOffset();
+            journal.markReplayed(offset);
+            replayed += chunk.entries().size();
+        }
+    }
+
+    private void refreshSnapshot() throws IOException {
+        List<SeatReservationRepository.TicketState> rows = reservationService.getTicketStates();
+        Map<String, GateTicket> loaded = new ConcurrentHashMap<>(rows.size() * 2);
+        rows.forEach(row -> loaded.put(row.getTicketNo(),
+                new GateTicket(row.getStatus(), row.getTableName(), row.getSeatNo())));
+        writeSnapshotFile(loaded);
+        // check-ins waiting in the journal stay checked in; no scan runs while the pending ones are laid over
+        snapshotLock.writeLock().lock();
+        try {
+            overlayPending(loaded);
+            tickets = loaded;
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    private void overlayPending(Map<String, GateTicket> snapshot) throws IOException {
+        long offset = journal.replayedOffset();
+        while (true) {
+            CheckInJournal.Chunk chunk = journal.read(offset, REPLAY_BATCH);
+            if (chunk.entries().isEmpty()) {
+                return;
+            }
+            chunk.entries().forEach(entry -> snapshot.computeIfPresent(entry.ticketNo(),
+                    (ticketNo, ticket) -> ticket.withStatus(ReservationStatus.CHECKED_IN)));
+            offset = chunk.endOffset();
+        }
+    }
+
+    private Path snapshotFile() {
+        return Path.of(journalDir).resolve("tickets.snapshot");
+    }
+
+    private void writeSnapshotFile(Map<String, GateTicket> snapshot) throws IOException {
+        StringBuilder out = new StringBuilder(snapshot.size() * 32);
+        snapshot.forEach((ticketNo, ticket) -> out.append(ticketNo).append('\t')
+                .append(ticket.status() == null ? "" : ticket.status().name()).append('\t')
+                .append(ticket.tableName() == null ? "" : ticket.tableName()).append('\t')
+                .append(ticket.seatNo() == null ? "" : ticket.seatNo()).append('\n'));
+        Path file = snapshotFile();
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(tmp, out, StandardCharsets.UTF_8);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Map<String, GateTicket> readSnapshotFile() throws IOException {
+        Map<String, GateTicket> snapshot = new ConcurrentHashMap<>();
+        if (!Files.exists(snapshotFile())) {
+            log.warn("No saved ticket snapshot in {}, every scan is unknown until the database is back", journalDir);
+            return snapshot;
+        }
+        for (String line : Files.readAllLines(snapshotFile(), StandardCharsets.UTF_8)) {
+            String[] parts = line.split("\t", -1);
+            if (parts.length == 4) {
+                snapshot.put(parts[0], new GateTicket(parts[1].isEmpty() ? null : ReservationStatus.valueOf(parts[1]),
+                        parts[2], parts[3]));
+            }
+        }
+        return snapshot;
+    }
+
+    public record GateTicket(ReservationStatus status, String tableName, String seatNo) {
+
+        GateTicket withStatus(ReservationStatus newStatus) {
+            return new GateTicket(newStatus, tableName, seatNo);
+        }
+    }
+}
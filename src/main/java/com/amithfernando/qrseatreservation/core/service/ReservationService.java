@@ -1,20 +1,38 @@
 package com.amithfernando.qrseatreservation.core.service;
 
+import com.amithfernando.qrseatreservation.core.enums.CheckInResult;
 import com.amithfernando.qrseatreservation.core.enums.ReservationStatus;
 import com.amithfernando.qrseatreservation.core.enums.SeatStatus;
+import com.amithfernando.qrseatreservation.core.event.SeatStatusChangedEvent;
+import com.amithfernando.qrseatreservation.core.exception.SeatConflictException;
 import com.amithfernando.qrseatreservation.core.model.ReservationDetail;
 import com.amithfernando.qrseatreservation.core.model.SeatDetail;
-import com.amithfernando.qrseatreservation.core.model.Ticket;
 import com.amithfernando.qrseatreservation.core.repsitory.ReservationDetailRepository;
 import com.amithfernando.qrseatreservation.core.repsitory.SeatDetailRepository;
 import com.amithfernando.qrseatreservation.core.repsitory.SeatReservationRepository;
+import com.amithfernando.qrseatreservation.ui.dto.ReservationRow;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.JpaSort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.io.IOException;
-import java.util.ArrayList;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 // ... existing code ...
 import com.amithfernando.qrseatreservation.core.model.SeatReservation;
@@ -23,33 +41,117 @@ import com.amithfernando.qrseatreservation.core.model.SeatReservation;
 @Slf4j
 public class ReservationService {
 
+    // grid sort keys -> query paths, anything else is ignored rather than passed into the JPQL
+    private static final Map<String, String> ROW_SORT_PATHS = Map.of(
+            "referenceNo", "rd.referenceNo",
+            "reservationStatus", "rd.reservationStatus",
+            "sellerName", "s.name",
+            "description", "rd.description");
+
     private final ReservationDetailRepository reservationDetailRepository;
     private final SeatReservationRepository seatReservationRepository;
     private final SeatDetailRepository seatDetailRepository;
     private final TicketService ticketService;
+    private final SeatHoldRegistry seatHoldRegistry;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ReservationService(ReservationDetailRepository reservationDetailRepository, SeatReservationRepository seatReservationRepository, SeatDetailRepository seatDetailRepository, TicketService ticketService) {
+    public ReservationService(ReservationDetailRepository reservationDetailRepository, SeatReservationRepository seatReservationRepository, SeatDetailRepository seatDetailRepository, TicketService ticketService, SeatHoldRegistry seatHoldRegistry, ApplicationEventPublisher eventPublisher) {
         this.reservationDetailRepository = reservationDetailRepository;
         this.seatReservationRepository = seatReservationRepository;
         this.seatDetailRepository = seatDetailRepository;
         this.ticketService = ticketService;
+        this.seatHoldRegistry = seatHoldRegistry;
+        this.eventPublisher = eventPublisher;
     }
 
+    // Few statements per reservation: one seat query, one conditional seat claim, one ticket allocation and
+    // an insert per seat reservation (IDENTITY ids, see SeatReservation).
+    // Seats are claimed optimistically without locking them first; if any seat was taken, nothing is saved.
     @Transactional
     public void saveReservation(ReservationDetail reservationDetail) {
+        saveReservation(reservationDetail, null);
+    }
+
+    // holderId is the UI session holding the seats (see SeatHoldRegistry); seats held by anyone else are refused.
+    // The holds are (re)taken before the claim and dropped once the RESERVED seats are committed; if the
+    // transaction rolls back the session keeps them and can retry.
+    @Transactional
+    public void saveReservation(ReservationDetail reservationDetail, String holderId) {
+        Set<SeatReservation> seatReservations = reservationDetail.getSeatReservations();
+        List<Long> seatIds = seatReservations.stream().map(sr -> sr.getSeatDetail().getId()).toList();
+        Map<Long, SeatDetail> seats = new HashMap<>();
+        seatDetailRepository.findAllById(seatIds).forEach(seat -> seats.put(seat.getId(), seat));
+        for (Long seatId : seatIds) {
+            if (!seats.containsKey(seatId)) {
+                throw new IllegalStateException("Seat not found: " + seatId);
+            }
+        }
+        String holder = holderId != null ? holderId : "reservation-" + UUID.randomUUID();
+        List<Long> heldByOthers = seatHoldRegistry.hold(holder, seatIds);
+        try {
+            if (!heldByOthers.isEmpty()) {
+                throw new SeatConflictException("Seats on hold by another seller",
+                        heldByOthers.stream().map(id -> seats.get(id).getSeatNo()).sorted().toList());
+            }
+            claimAndSave(reservationDetail, seats, seatIds);
+            if (holderId != null) {
+                releaseHoldsAfterTransaction(holder, seatIds, false);
+            }
+        } finally {
+            // a one-off holder has nobody left to release its holds when the booking fails
+            if (holderId == null) {
+                releaseHoldsAfterTransaction(holder, seatIds, true);
+            }
+        }
+    }
+
+    // Released only after commit, so no other seller sees the seats unheld while they are not RESERVED for
+    // everyone else yet. Outside a transaction there is nothing to wait for.
+    private void releaseHoldsAfterTransaction(String holder, List<Long> seatIds, boolean onRollbackToo) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            seatHoldRegistry.release(holder, seatIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED || onRollbackToo) {
+                    seatHoldRegistry.release(holder, seatIds);
+                }
+            }
+        });
+    }
+
+    private void claimAndSave(ReservationDetail reservationDetail, Map<Long, SeatDetail> seats, List<Long> seatIds) {
+        Set<SeatReservation> seatReservations = reservationDetail.getSeatReservations();
+        // fail fast on seats that were already taken when the form was filled in
+        List<String> taken = seats.values().stream()
+                .filter(seat -> !seat.isAvailable())
+                .map(SeatDetail::getSeatNo)
+                .sorted()
+                .toList();
+        if (!taken.isEmpty()) {
+            throw new SeatConflictException("Seats already booked", taken);
+        }
+        // the claim only matches seats that are still AVAILABLE, so a booking that slipped in since the read
+        // makes the count fall short; the exception rolls back whatever part of the claim did match
+        int claimed = seatDetailRepository.claimSeats(seatIds, SeatStatus.AVAILABLE, SeatStatus.RESERVED, LocalDateTime.now());
+        if (claimed != seatIds.size()) {
+            throw new SeatConflictException("One or more of these seats were just booked by someone else",
+                    seats.values().stream().map(SeatDetail::getSeatNo).sorted().toList());
+        }
         //update ticket no
-        reservationDetail.getSeatReservations().forEach(seatReservation -> {
-            log.info("Saving seat reservation: {}", seatReservation);
-            SeatDetail seatDetail = seatDetailRepository.findById(seatReservation.getSeatDetail().getId()).get();
-            String ticketNo = ticketService.getTicketNumber();
-            seatReservation.setTicketNo(ticketNo);
+        Iterator<String> ticketNos = ticketService.allocateTicketNumbers(seatReservations.size()).iterator();
+        seatReservations.forEach(seatReservation -> {
+            SeatDetail seatDetail = seats.get(seatReservation.getSeatDetail().getId());
+            // detached by the claim, mirrors the row it just updated
+            seatDetail.setSeatStatus(SeatStatus.RESERVED);
+            seatReservation.setTicketNo(ticketNos.next());
             seatReservation.setSeatDetail(seatDetail);
             seatReservation.setReservationStatus(ReservationStatus.PAYMENT_PENDING);
-            seatReservationRepository.save(seatReservation);
-            //update seat status
-            seatDetail.setSeatStatus(SeatStatus.RESERVED);
-            seatDetailRepository.save(seatDetail);
         });
+        seatReservationRepository.saveAll(seatReservations);
+        eventPublisher.publishEvent(SeatStatusChangedEvent.forSeats(seatIds, SeatStatus.RESERVED));
         reservationDetail.setReservationStatus(ReservationStatus.PAYMENT_PENDING);
         reservationDetail.setReferenceNo(UUID.randomUUID().toString());//small unique id
         reservationDetailRepository.save(reservationDetail);
@@ -62,6 +164,53 @@ public class ReservationService {
         return reservationDetailRepository.findAllWithDetails();
     }
 
+    /**
+     * One page of reservations grid rows. Filtering, sorting and paging all happen in the database, so only
+     * the requested rows are loaded. The filter matches reference no, seller, description and status.
+     * offset must be a multiple of limit, as the grid requests it.
+     */
+    public List<ReservationRow> findReservationRows(String filter, int offset, int limit, Sort sort) {
+        Sort rowSort = Sort.unsorted();
+        for (Sort.Order order : sort) {
+            String path = ROW_SORT_PATHS.get(order.getProperty());
+            if (path != null) {
+                rowSort = rowSort.and(JpaSort.unsafe(order.getDirection(), path));
+            }
+        }
+        // newest first unless asked otherwise; rd.id last keeps page boundaries stable
+        rowSort = rowSort.and(JpaSort.unsafe(Sort.Direction.DESC, "rd.id"));
+        return reservationDetailRepository.findRows(likePattern(filter), matchingStatuses(filter),
+                PageRequest.of(offset / limit, limit, rowSort));
+    }
+
+    public int countReservationRows(String filter) {
+        return (int) reservationDetailRepository.countRows(likePattern(filter), matchingStatuses(filter));
+    }
+
+    public List<SeatReservation> getRecentCheckIns(int limit) {
+        return seatReservationRepository.findRecentByStatus(ReservationStatus.CHECKED_IN, PageRequest.of(0, limit));
+    }
+
+    @Transactional
+    public Optional<ReservationDetail> getReservationWithDetails(Long id) {
+        return reservationDetailRepository.findWithDetailsById(id);
+    }
+
+    private static String likePattern(String filter) {
+        if (filter == null || filter.isBlank()) return "%";
+        String escaped = filter.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    private static List<ReservationStatus> matchingStatuses(String filter) {
+        if (filter == null || filter.isBlank()) return List.of();
+        String ft = filter.trim().toLowerCase(Locale.ROOT);
+        return Arrays.stream(ReservationStatus.values())
+                .filter(status -> status.name().toLowerCase(Locale.ROOT).contains(ft))
+                .toList();
+    }
+
     @Transactional
     public void deleteReservation(ReservationDetail reservationDetail) {
         //update ticket no
@@ -74,19 +223,27 @@ public class ReservationService {
             seatDetailRepository.save(seatDetail);
         });
         reservationDetailRepository.delete(reservationDetail);
+        eventPublisher.publishEvent(SeatStatusChangedEvent.forSeats(
+                reservationDetail.getSeatReservations().stream().map(sr -> sr.getSeatDetail().getId()).toList(),
+                SeatStatus.AVAILABLE));
         log.info("Reservation details deleted: {}", reservationDetail);
     }
 
-    public byte[] getTicketImageZip(ReservationDetail reservationDetail) throws IOException {
-        if(reservationDetail==null){
-            return null;
-        }
-        List<Ticket>   tickets=new ArrayList<>();
-        reservationDetail.getSeatReservations().forEach(seatReservation -> {
-            Ticket byTicketNo = ticketService.findByTicketNo(seatReservation.getTicketNo());
-            tickets.add(byTicketNo);
-        });
-        return ticketService.createZipFromImages(tickets);
+    public void writeTicketZip(ReservationDetail reservationDetail, OutputStream out) throws IOException {
+        List<String> ticketNos = reservationDetail.getSeatReservations().stream()
+                .map(SeatReservation::getTicketNo)
+                .filter(Objects::nonNull)
+                .sorted()
+                .toList();
+        ticketService.writeTicketZip(ticketNos, out);
+    }
+
+    public void writeEventTicketZip(OutputStream out) throws IOException {
+        ticketService.writeTicketZip(reservationDetailRepository.findAllTicketNos(), out);
+    }
+
+    public void writeSellerTicketZip(Long sellerId, OutputStream out) throws IOException {
+        ticketService.writeTicketZip(reservationDetailRepository.findTicketNosBySellerId(sellerId), out);
     }
 
     @Transactional
@@ -107,44 +264,41 @@ public class ReservationService {
     @Transactional
     public ReservationDetail findReservationByTicketNo(String ticketNo) {
         if (ticketNo == null || ticketNo.isBlank()) return null;
-        for (ReservationDetail rd : reservationDetailRepository.findAllWithDetails()) {
-            if (rd.getSeatReservations() == null) continue;
-            boolean match = rd.getSeatReservations().stream()
-                    .anyMatch(sr -> sr != null && ticketNo.equals(sr.getTicketNo()));
-            if (match) return rd;
-        }
-        return null;
+        return reservationDetailRepository.findByTicketNo(ticketNo).orElse(null);
     }
 
-    // Mark a seat reservation as CHECKED_IN using the scanned ticket number
+    // Mark a seat reservation as CHECKED_IN using the scanned ticket number.
+    // The PAID -> CHECKED_IN transition is decided by the database, so two gates scanning
+    // the same ticket at once cannot both succeed.
     @Transactional
-    public boolean checkInByTicketNo(String ticketNo) {
-        if (ticketNo == null || ticketNo.isBlank()) return false;
-        SeatReservation target = null;
-        for (ReservationDetail rd : reservationDetailRepository.findAllWithDetails()) {
-            if (rd.getSeatReservations() == null) continue;
-            for (SeatReservation sr : rd.getSeatReservations()) {
-                if (sr != null && ticketNo.equals(sr.getTicketNo())) {
-                    target = sr;
-                    break;
-                }
-            }
-            if (target != null) break;
-        }
-        if (target == null) {
-            log.warn("No seat reservation found for ticket {}", ticketNo);
-            return false;
+    public CheckInResult checkInByTicketNo(String ticketNo) {
+        if (ticketNo == null || ticketNo.isBlank()) return CheckInResult.UNKNOWN;
+        if (seatReservationRepository.checkInIfPaid(ticketNo, LocalDateTime.now()) > 0) {
+            log.info("Checked-in ticket {}", ticketNo);
+            // the seat id is looked up once per broadcast window, not on the scan path
+            eventPublisher.publishEvent(SeatStatusChangedEvent.forTickets(List.of(ticketNo), SeatStatus.CHECKED_IN));
+            return CheckInResult.CHECKED_IN;
         }
-        if (target.getReservationStatus() == ReservationStatus.CHECKED_IN) {
-            log.info("Ticket {} already checked-in", ticketNo);
-            return false;
+        CheckInResult result = seatReservationRepository.findStatusByTicketNo(ticketNo)
+                .map(status -> status == ReservationStatus.CHECKED_IN
+                        ? CheckInResult.ALREADY_CHECKED_IN
+                        : CheckInResult.NOT_PAID)
+                .orElse(CheckInResult.UNKNOWN);
+        log.info("Ticket {} not checked-in: {}", ticketNo, result);
+        return result;
+    }
+
+    public List<SeatReservationRepository.TicketState> getTicketStates() {
+        return seatReservationRepository.findAllTicketStates();
+    }
+
+    // Replays one check-in from a gate journal; false when an earlier check-in already holds or the ticket is not paid
+    @Transactional
+    public boolean applyGateCheckIn(String ticketNo, String gateId, LocalDateTime checkedInAt) {
+        if (seatReservationRepository.applyGateCheckIn(ticketNo, gateId, checkedInAt, LocalDateTime.now()) > 0) {
+            eventPublisher.publishEvent(SeatStatusChangedEvent.forTickets(List.of(ticketNo), SeatStatus.CHECKED_IN));
+            return true;
         }
-        target.setReservationStatus(ReservationStatus.CHECKED_IN);
-        seatReservationRepository.save(target);
-        SeatDetail seatDetail = target.getSeatDetail();
-        seatDetail.setSeatStatus(SeatStatus.CHECKED_IN);
-        seatDetailRepository.save(seatDetail);
-        log.info("Checked-in ticket {}", ticketNo);
-        return true;
+        return false;
     }
 }
@@ -0,0 +1,132 @@
+package com.amithfernando.qrseatreservation.core.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Short-lived, in-memory holds on seats picked in the reservation dialog, keyed by seat id and owned by a UI session.
+ * Other sessions neither see held seats as available nor can book them until the hold is released or expires.
+ * Holds are advisory and per node; the conditional seat claim in ReservationService stays the source of truth.
+ * ConcurrentHashMap gives per-bin locking, no registry-wide lock is taken.
+ */
+@Service
+@Slf4j
+public class SeatHoldRegistry {
+
+    private final ConcurrentHashMap<Long, Hold> holds = new ConcurrentHashMap<>();
+    private final LongSupplier nanoClock;
+    private ScheduledExecutorService sweeper;
+
+    @Value("${settings.reservation.seatHoldSeconds:180}")
+    private long holdSeconds;
+
+    public SeatHoldRegistry() {
+        this(System::nanoTime);
+    }
+
+    SeatHoldRegistry(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+    }
+
+    SeatHoldRegistry(long holdSeconds, LongSupplier nanoClock) {
+        this(nanoClock);
+        this.holdSeconds = holdSeconds;
+    }
+
+    @PostConstruct
+    public void startSweeper() {
+        long period = Math.max(1, holdSeconds / 4);
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "seat-hold-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, period, period, TimeUnit.SECONDS);
+        log.info("Seat holds expire after {} s, swept every {} s", holdSeconds, period);
+    }
+
+    @PreDestroy
+    public void stopSweeper() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    /**
+     * Holds (or renews) the seats for holderId.
+     * @return seats that could not be held because another holder has them; every other seat is now held by holderId
+     */
+    public List<Long> hold(String holderId, Collection<Long> seatIds) {
+        long now = nanoClock.getAsLong();
+        Hold hold = new Hold(holderId, now + TimeUnit.SECONDS.toNanos(holdSeconds));
+        List<Long> heldByOthers = new ArrayList<>();
+        for (Long seatId : seatIds) {
+            Hold current = holds.compute(seatId, (id, existing) ->
+                    existing == null || existing.expired(now) || existing.holderId().equals(holderId) ? hold : existing);
+            if (current != hold) {
+                heldByOthers.add(seatId);
+            }
+        }
+        return heldByOthers;
+    }
+
+    public void release(String holderId, Collection<Long> seatIds) {
+        for (Long seatId : seatIds) {
+            holds.computeIfPresent(seatId, (id, existing) -> existing.holderId().equals(holderId) ? null : existing);
+        }
+    }
+
+    public void releaseAll(String holderId) {
+        holds.entrySet().removeIf(e -> e.getValue().holderId().equals(holderId));
+    }
+
+    public boolean isHeldByOther(Long seatId, String holderId) {
+        Hold hold = holds.get(seatId);
+        return hold != null && !hold.expired(nanoClock.getAsLong()) && !hold.holderId().equals(holderId);
+    }
+
+    public Set<Long> heldSeatIds() {
+        long now = nanoClock.getAsLong();
+        return holds.entrySet().stream()
+                .filter(e -> !e.getValue().expired(now))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    // entrySet().removeIf removes an entry only if it still maps to the hold that was tested, so a renewal racing
+    // with the sweep is never lost
+    void sweep() {
+        long now = nanoClock.getAsLong();
+        int before = holds.size();
+        holds.entrySet().removeIf(e -> e.getValue().expired(now));
+        int swept = before - holds.size();
+        if (swept > 0) {
+            log.debug("Swept {} expired seat holds", swept);
+        }
+    }
+
+    int size() {
+        return holds.size();
+    }
+
+    private record Hold(String holderId, long expiresAtNanos) {
+        boolean expired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+}
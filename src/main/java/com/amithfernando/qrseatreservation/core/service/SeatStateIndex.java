@@ -0,0 +1,255 @@
+package com.amithfernando.qrseatreservation.core.service;
+
+import com.amithfernando.qrseatreservation.core.enums.SeatStatus;
+import com.amithfernando.qrseatreservation.core.event.SeatLayoutChangedEvent;
+import com.amithfernando.qrseatreservation.core.event.SeatStatusChangedEvent;
+import com.amithfernando.qrseatreservation.core.repsitory.SeatDetailRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Seat statuses held in memory as one bitset per status per table, bit i being the table's i-th seat by id.
+ * Answers free seats of a table, tables with enough free seats and venue totals without loading entities.
+ * Built from one projection query at startup and after table changes, then kept current from committed
+ * SeatStatusChangedEvents. The database stays the source of truth, bookings still claim seats conditionally.
+ * A seat without a status is in no bitset, so like SeatDetail.isAvailable() it is neither free nor counted.
+ */
+@Service
+@Slf4j
+public class SeatStateIndex {
+
+    private static final SeatStatus[] STATUSES = SeatStatus.values();
+
+    private final SeatDetailRepository seatDetailRepository;
+    private final SeatStatusBroadcaster seatStatusBroadcaster;
+    private volatile Index index = Index.EMPTY;
+    // changes seen while a rebuild reads the database, applied again once the rebuilt index is in place
+    private List<Change> replay;
+    private final Object rebuildLock = new Object();
+
+    public SeatStateIndex(SeatDetailRepository seatDetailRepository, SeatStatusBroadcaster seatStatusBroadcaster) {
+        this.seatDetailRepository = seatDetailRepository;
+        this.seatStatusBroadcaster = seatStatusBroadcaster;
+    }
+
+    // check-ins only name the ticket; the broadcaster resolves them to seats once per window anyway
+    @PostConstruct
+    public void followCheckIns() {
+        seatStatusBroadcaster.register(this::onResolvedDelta);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatLayoutChanged(SeatLayoutChangedEvent event) {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatStatusChanged(SeatStatusChangedEvent event) {
+        event.seatIds().forEach(seatId -> record(seatId, event.status(), null));
+    }
+
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                replay = new ArrayList<>();
+            }
+            Index rebuilt = Index.of(seatDetailRepository.findAllSeatStates());
+            synchronized (this) {
+                // in order and before any later change, which waits for the lock
+                replay.forEach(change -> rebuilt.move(change.seatId(), change.status(), change.onlyFrom()));
+                replay = null;
+                index = rebuilt;
+            }
+            log.info("Seat state index built: {} tables, {} seats", rebuilt.tables.size(), rebuilt.seats.size());
+        }
+    }
+
+    public boolean isFree(Long seatId) {
+        return index.status(seatId) == SeatStatus.AVAILABLE;
+    }
+
+    public List<Long> freeSeatIds(Long tableId) {
+        return seatIds(tableId, SeatStatus.AVAILABLE);
+    }
+
+    public List<Long> seatIds(Long tableId, SeatStatus status) {
+        TableSeats table = index.tables.get(tableId);
+        return table == null ? List.of() : table.seatIds(status);
+    }
+
+    public int count(Long tableId, SeatStatus status) {
+        TableSeats table = index.tables.get(tableId);
+        return table == null ? 0 : table.count(status);
+    }
+
+    // ids of the tables with at least minFree available seats, in table id order
+    public List<Long> tablesWithFreeSeats(int minFree) {
+        List<Long> tableIds = new ArrayList<>();
+        index.tables.forEach((tableId, table) -> {
+            if (table.count(SeatStatus.AVAILABLE) >= minFree) {
+                tableIds.add(tableId);
+            }
+        });
+        Collections.sort(tableIds);
+        return tableIds;
+    }
+
+    public long total(SeatStatus status) {
+        return index.totals.get(status.ordinal());
+    }
+
+    private synchronized void record(Long seatId, SeatStatus status, SeatStatus onlyFrom) {
+        index.move(seatId, status, onlyFrom);
+        if (replay != null) {
+            replay.add(new Change(seatId, status, onlyFrom));
+        }
+    }
+
+    // a check-in only ever moves a reserved seat on; a seat freed or rebooked since keeps its newer status
+    private void onResolvedDelta(Map<Long, SeatStatus> delta) {
+        delta.forEach((seatId, status) -> {
+            if (status == SeatStatus.CHECKED_IN) {
+                record(seatId, SeatStatus.CHECKED_IN, SeatStatus.RESERVED);
+            }
+        });
+    }
+
+    private static final class Index {
+
+        static final Index EMPTY = new Index(Map.of(), Map.of());
+
+        final Map<Long, TableSeats> tables;
+        final Map<Long, Slot> seats;
+        final AtomicLongArray totals = new AtomicLongArray(STATUSES.length);
+
+        Index(Map<Long, TableSeats> tables, Map<Long, Slot> seats) {
+            this.tables = tables;
+            this.seats = seats;
+        }
+
+        // rows come ordered by table then seat id
+        static Index of(List<SeatDetailRepository.SeatState> rows) {
+            Map<Long, TableSeats> tables = new HashMap<>();
+            Map<Long, Slot> seats = new HashMap<>(rows.size() * 2);
+            int from = 0;
+            while (from < rows.size()) {
+                Long tableId = rows.get(from).getTableId();
+                int to = from;
+                while (to < rows.size() && rows.get(to).getTableId().equals(tableId)) {
+                    to++;
+                }
+                TableSeats table = new TableSeats(to - from);
+                for (int i = from; i < to; i++) {
+                    SeatDetailRepository.SeatState row = rows.get(i);
+                    table.seatIds[i - from] = row.getSeatId();
+                    if (row.getStatus() != null) {
+                        table.byStatus[row.getStatus().ordinal()].set(i - from);
+                    }
+                    seats.put(row.getSeatId(), new Slot(table, i - from));
+                }
+                tables.put(tableId, table);
+                from = to;
+            }
+            Index index = new Index(tables, seats);
+            tables.values().forEach(table -> {
+                for (SeatStatus status : STATUSES) {
+                    index.totals.addAndGet(status.ordinal(), table.count(status));
+                }
+            });
+            return index;
+        }
+
+        SeatStatus status(Long seatId) {
+            Slot slot = seats.get(seatId);
+            return slot == null ? null : slot.table().status(slot.bit());
+        }
+
+        // moves the seat to status, only if it is currently in onlyFrom when that is given
+        void move(Long seatId, SeatStatus status, SeatStatus onlyFrom) {
+            Slot slot = seats.get(seatId);
+            if (slot == null) {
+                // a seat of a table added since the last build, the rebuild for that table picks it up
+                return;
+            }
+            // moves are serialized by the SeatStateIndex lock, so the seat cannot change in between
+            SeatStatus previous = slot.table().status(slot.bit());
+            if (slot.table().move(slot.bit(), status, onlyFrom) && previous != status) {
+                if (previous != null) {
+                    totals.decrementAndGet(previous.ordinal());
+                }
+                totals.incrementAndGet(status.ordinal());
+            }
+        }
+    }
+
+    private static final class TableSeats {
+
+        final long[] seatIds;
+        final BitSet[] byStatus = new BitSet[STATUSES.length];
+
+        TableSeats(int size) {
+            seatIds = new long[size];
+            for (int i = 0; i < byStatus.length; i++) {
+                byStatus[i] = new BitSet(size);
+            }
+        }
+
+        synchronized int count(SeatStatus status) {
+            return byStatus[status.ordinal()].cardinality();
+        }
+
+        synchronized List<Long> seatIds(SeatStatus status) {
+            BitSet bits = byStatus[status.ordinal()];
+            List<Long> ids = new ArrayList<>(bits.cardinality());
+            for (int bit = bits.nextSetBit(0); bit >= 0; bit = bits.nextSetBit(bit + 1)) {
+                ids.add(seatIds[bit]);
+            }
+            return ids;
+        }
+
+        synchronized SeatStatus status(int bit) {
+            for (SeatStatus status : STATUSES) {
+                if (byStatus[status.ordinal()].get(bit)) {
+                    return status;
+                }
+            }
+            return null;
+        }
+
+        // false when onlyFrom did not match and nothing changed
+        synchronized boolean move(int bit, SeatStatus status, SeatStatus onlyFrom) {
+            SeatStatus previous = status(bit);
+            if (onlyFrom != null && previous != onlyFrom) {
+                return false;
+            }
+            if (previous != null) {
+                byStatus[previous.ordinal()].clear(bit);
+            }
+            byStatus[status.ordinal()].set(bit);
+            return true;
+        }
+    }
+
+    private record Slot(TableSeats table, int bit) {
+    }
+
+    private record Change(Long seatId, SeatStatus status, SeatStatus onlyFrom) {
+    }
+}
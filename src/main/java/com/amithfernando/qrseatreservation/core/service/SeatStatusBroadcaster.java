@@ -0,0 +1,123 @@
+package com.amithfernando.qrseatreservation.core.service;
+
+import com.amithfernando.qrseatreservation.core.enums.SeatStatus;
+import com.amithfernando.qrseatreservation.core.event.SeatStatusChangedEvent;
+import com.amithfernando.qrseatreservation.core.repsitory.SeatReservationRepository;
+import com.vaadin.flow.shared.Registration;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Fans committed seat status changes out to open seating layouts and the seat state index. Changes are collected
+ * per seat (last one wins) and delivered as one delta per window, so a burst of bookings costs each layout a
+ * single push. Listeners are called on the broadcaster thread and must hand the delta over to their UI themselves.
+ */
+@Service
+@Slf4j
+public class SeatStatusBroadcaster {
+
+    private final SeatReservationRepository seatReservationRepository;
+    private final Map<Long, SeatStatus> pendingSeats = new ConcurrentHashMap<>();
+    private final Map<String, SeatStatus> pendingTickets = new ConcurrentHashMap<>();
+    private final List<Consumer<Map<Long, SeatStatus>>> listeners = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService flusher;
+
+    @Value("${settings.seatingLayout.updateIntervalMillis:250}")
+    private long intervalMillis;
+
+    public SeatStatusBroadcaster(SeatReservationRepository seatReservationRepository) {
+        this.seatReservationRepository = seatReservationRepository;
+    }
+
+    @PostConstruct
+    public void startFlusher() {
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "seat-status-broadcaster");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stopFlusher() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+    }
+
+    // after commit only, a rolled back booking must never show up on a layout; outside a transaction right away
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatStatusChanged(SeatStatusChangedEvent event) {
+        event.seatIds().forEach(id -> pendingSeats.put(id, event.status()));
+        event.ticketNos().forEach(ticketNo -> pendingTickets.put(ticketNo, event.status()));
+    }
+
+    public Registration register(Consumer<Map<Long, SeatStatus>> listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    void flush() {
+        try {
+            Map<Long, SeatStatus> delta = drain(pendingSeats);
+            Map<String, SeatStatus> tickets = drain(pendingTickets);
+            if (listeners.isEmpty() || (delta.isEmpty() && tickets.isEmpty())) {
+                return;
+            }
+            if (!tickets.isEmpty()) {
+                resolveTickets(tickets, delta);
+            }
+            Map<Long, SeatStatus> published = Map.copyOf(delta);
+            for (Consumer<Map<Long, SeatStatus>> listener : listeners) {
+                try {
+                    listener.accept(published);
+                } catch (RuntimeException e) {
+                    log.warn("Seat status listener failed: {}", e.getMessage());
+                }
+            }
+        } catch (RuntimeException e) {
+            // keep the schedule alive, the next window carries on
+            log.error("Seat status broadcast failed", e);
+        }
+    }
+
+    int listenerCount() {
+        return listeners.size();
+    }
+
+    // one query per distinct status in the window, normally just CHECKED_IN
+    private void resolveTickets(Map<String, SeatStatus> tickets, Map<Long, SeatStatus> delta) {
+        Map<SeatStatus, List<String>> byStatus = new HashMap<>();
+        tickets.forEach((ticketNo, status) -> byStatus.computeIfAbsent(status, s -> new ArrayList<>()).add(ticketNo));
+        byStatus.forEach((status, ticketNos) ->
+                seatReservationRepository.findSeatIdsByTicketNos(ticketNos).forEach(id -> delta.put(id, status)));
+    }
+
+    // removes entry by entry, a change arriving meanwhile either makes this window or stays for the next
+    private static <K> Map<K, SeatStatus> drain(Map<K, SeatStatus> pending) {
+        Map<K, SeatStatus> drained = new HashMap<>();
+        for (K key : pending.keySet()) {
+            SeatStatus status = pending.remove(key);
+            if (status != null) {
+                drained.put(key, status);
+            }
+        }
+        return drained;
+    }
+}
@@ -0,0 +1,104 @@
+package com.amithfernando.qrseatreservation.core.service;
+
+import com.amithfernando.qrseatreservation.core.event.SeatLayoutChangedEvent;
+import com.amithfernando.qrseatreservation.core.event.SeatStatusChangedEvent;
+import com.amithfernando.qrseatreservation.core.util.SeatingLayoutRenderer;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Full-venue seating layout images, rendered on the server and cached per format until a seat status, a table
+ * or the layout settings change. Repeat downloads and display polls between changes are served from the cache.
+ */
+@Service
+@Slf4j
+public class SeatingLayoutImageService {
+
+    private final TableDetailService tableDetailService;
+    private final SettingService settingService;
+    // the counters below restart at 0 with the process; this keeps a version from before a restart from matching
+    private final String bootId = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    // bumped after commit of every seat status or table change
+    private final AtomicLong layoutVersion = new AtomicLong();
+    private final Map<Format, LayoutImage> cache = new ConcurrentHashMap<>();
+    private final Object renderLock = new Object();
+
+    public SeatingLayoutImageService(TableDetailService tableDetailService, SettingService settingService) {
+        this.tableDetailService = tableDetailService;
+        this.settingService = settingService;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatStatusChanged(SeatStatusChangedEvent event) {
+        layoutVersion.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatLayoutChanged(SeatLayoutChangedEvent event) {
+        layoutVersion.incrementAndGet();
+    }
+
+    // layout and settings version, usable as an ETag without rendering anything
+    public String currentVersion() {
+        return version(settingService.getSnapshot());
+    }
+
+    public LayoutImage getImage(Format format) {
+        String version = currentVersion();
+        LayoutImage cached = cache.get(format);
+        if (cached != null && cached.version().equals(version)) {
+            return cached;
+        }
+        // one render per format and version, concurrent requests wait for it instead of rendering again
+        synchronized (renderLock) {
+            SettingSnapshot setting = settingService.getSnapshot();
+            version = version(setting);
+            cached = cache.get(format);
+            if (cached != null && cached.version().equals(version)) {
+                return cached;
+            }
+            // the version is read before the tables, a change committed during the render makes the next call render again
+            LayoutImage image = new LayoutImage(version, render(format, setting));
+            cache.put(format, image);
+            log.info("Rendered {} seating layout, version {}, {} bytes", format, version, image.content().length);
+            return image;
+        }
+    }
+
+    private String version(SettingSnapshot setting) {
+        return bootId + "-" + layoutVersion.get() + "-" + setting.getVersion();
+    }
+
+    private byte[] render(Format format, SettingSnapshot setting) {
+        SeatingLayoutRenderer renderer = new SeatingLayoutRenderer(setting.getTableSize(), setting.getSeatSize(),
+                setting.getNoOfColumns());
+        return switch (format) {
+            case PNG -> renderer.renderPng(tableDetailService.getAllTables());
+            case SVG -> renderer.renderSvg(tableDetailService.getAllTables());
+        };
+    }
+
+    @Getter
+    public enum Format {
+        PNG("image/png", "png"),
+        SVG("image/svg+xml", "svg");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+    }
+
+    public record LayoutImage(String version, byte[] content) {
+    }
+}
@@ -3,6 +3,7 @@ package com.amithfernando.qrseatreservation.core.service;
 import com.amithfernando.qrseatreservation.core.model.Setting;
 import com.amithfernando.qrseatreservation.core.repsitory.SettingRepository;
 import jakarta.annotation.PostConstruct;
+import jakarta.transaction.Transactional;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,12 +19,19 @@ import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.function.Supplier;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 @Slf4j
 public class SettingService {
 
     private final SettingRepository settingRepository;
+    // bumped on every save so caches derived from the settings (e.g. the ticket template) can detect changes
+    private final AtomicLong version = new AtomicLong();
+    // what the hot paths read; loaded on first use, swapped as a whole on save so readers never see a half-applied change
+    private final AtomicReference<SettingSnapshot> snapshot = new AtomicReference<>();
 
     //seat layout
     @Value("${settings.seatingLayout.tableSize}")
@@ -84,10 +92,33 @@ public class SettingService {
             }
     }
 
+    // Full entity including the base image, for editing in the settings form; read paths use getSnapshot()
     public Setting getSetting() {
         return settingRepository.findAll().get(0);
     }
 
+    public SettingSnapshot getSnapshot() {
+        SettingSnapshot current = snapshot.get();
+        if (current != null) {
+            return current;
+        }
+        List<SettingRepository.SettingFields> rows = settingRepository.findAllFields();
+        if (rows.isEmpty()) {
+            throw new IllegalStateException("Settings are not initialized");
+        }
+        SettingRepository.SettingFields fields = rows.get(0);
+        SettingSnapshot loaded = SettingSnapshot.of(fields, version.get(), baseImageLoader(fields.getId()));
+        // a save that raced with this load wins, its snapshot is newer
+        return snapshot.compareAndSet(null, loaded) ? loaded : snapshot.get();
+    }
+
+    private Supplier<byte[]> baseImageLoader(Long id) {
+        return () -> {
+            log.info("Loading base image for settings {}", id);
+            return settingRepository.findBaseImageById(id);
+        };
+    }
+
     private byte[] getBaseImage() throws FileNotFoundException {
         if (baseImagePath == null || baseImagePath.isBlank()) {
             throw new IllegalStateException("Base image path is not configured.");
@@ -122,8 +153,26 @@ public class SettingService {
     }
 
 
+    // Deliberately does not bump the version: numbering state does not affect the ticket template
+    @Transactional
+    public void updateTicketNumbering(SettingSnapshot setting, long ticketKey, long nextTicketIndex) {
+        settingRepository.updateTicketNumbering(setting.getId(), ticketKey, nextTicketIndex);
+        snapshot.updateAndGet(current -> current == null ? null : current.withTicketNumbering(ticketKey, nextTicketIndex));
+        log.info("Ticket numbering advanced to index {}", nextTicketIndex);
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
     public Setting save(Setting setting) {
         settingRepository.save(setting);
+        long saved = version.incrementAndGet();
+        // numbering columns are not updatable from the form, keep the numbering the snapshot already has
+        snapshot.updateAndGet(current -> {
+            SettingSnapshot next = SettingSnapshot.of(setting, saved, baseImageLoader(setting.getId()));
+            return current == null ? next : next.withTicketNumbering(current.getTicketKey(), current.getNextTicketIndex());
+        });
         log.info("Settings updated: {}", setting);
         return setting;
     }
@@ -0,0 +1,99 @@
+package com.amithfernando.qrseatreservation.core.service;
+
+import com.amithfernando.qrseatreservation.core.model.Setting;
+import com.amithfernando.qrseatreservation.core.repsitory.SettingRepository;
+import lombok.Getter;
+
+import java.util.function.Supplier;
+
+/**
+ * Read-only copy of the settings row as of one settings version. Instances are shared between threads and
+ * replaced, never modified, when the settings change. The base image is only loaded, once, when first asked for.
+ */
+@Getter
+public final class SettingSnapshot {
+
+    private final long version;
+    private final Long id;
+    private final String eventName;
+    private final String venue;
+    private final int tableSize;
+    private final int seatSize;
+    private final int noOfColumns;
+    private final int fontSize;
+    private final int qrX;
+    private final int qrY;
+    private final int textX;
+    private final int textY;
+    private final String ticketPrefix;
+    private final Integer noOfDigits;
+    private final Integer maxNoOfTickets;
+    private final Long ticketKey;
+    private final Long nextTicketIndex;
+    @Getter(lombok.AccessLevel.NONE)
+    private final Supplier<byte[]> baseImageLoader;
+    @Getter(lombok.AccessLevel.NONE)
+    private volatile byte[] baseImage;
+
+    private SettingSnapshot(long version, Long id, String eventName, String venue, int tableSize, int seatSize,
+                            int noOfColumns, int fontSize, int qrX, int qrY, int textX, int textY, String ticketPrefix,
+                            Integer noOfDigits, Integer maxNoOfTickets, Long ticketKey, Long nextTicketIndex,
+                            Supplier<byte[]> baseImageLoader, byte[] baseImage) {
+        this.version = version;
+        this.id = id;
+        this.eventName = eventName;
+        this.venue = venue;
+        this.tableSize = tableSize;
+        this.seatSize = seatSize;
+        this.noOfColumns = noOfColumns;
+        this.fontSize = fontSize;
+        this.qrX = qrX;
+        this.qrY = qrY;
+        this.textX = textX;
+        this.textY = textY;
+        this.ticketPrefix = ticketPrefix;
+        this.noOfDigits = noOfDigits;
+        this.maxNoOfTickets = maxNoOfTickets;
+        this.ticketKey = ticketKey;
+        this.nextTicketIndex = nextTicketIndex;
+        this.baseImageLoader = baseImageLoader;
+        this.baseImage = baseImage;
+    }
+
+    // From a settings entity that is already in memory; its base image is reused, the loader only runs if it has none
+    static SettingSnapshot of(Setting s, long version, Supplier<byte[]> baseImageLoader) {
+        return new SettingSnapshot(version, s.getId(), s.getEventName(), s.getVenue(), s.getTableSize(), s.getSeatSize(),
+                s.getNoOfColumns(), s.getFontSize(), s.getQrX(), s.getQrY(), s.getTextX(), s.getTextY(),
+                s.getTicketPrefix(), s.getNoOfDigits(), s.getMaxNoOfTickets(), s.getTicketKey(), s.getNextTicketIndex(),
+                baseImageLoader, s.getBaseImage());
+    }
+
+    // From the blob-free projection; baseImageLoader runs on the first getBaseImage call
+    static SettingSnapshot of(SettingRepository.SettingFields f, long version, Supplier<byte[]> baseImageLoader) {
+        return new SettingSnapshot(version, f.getId(), f.getEventName(), f.getVenue(), f.getTableSize(), f.getSeatSize(),
+                f.getNoOfColumns(), f.getFontSize(), f.getQrX(), f.getQrY(), f.getTextX(), f.getTextY(),
+                f.getTicketPrefix(), f.getNoOfDigits(), f.getMaxNoOfTickets(), f.getTicketKey(), f.getNextTicketIndex(),
+                baseImageLoader, null);
+    }
+
+    // Same settings version with new numbering state; numbering does not affect anything derived from the version
+    SettingSnapshot withTicketNumbering(Long ticketKey, Long nextTicketIndex) {
+        return new SettingSnapshot(version, id, eventName, venue, tableSize, seatSize, noOfColumns, fontSize, qrX, qrY,
+                textX, textY, ticketPrefix, noOfDigits, maxNoOfTickets, ticketKey, nextTicketIndex,
+                baseImageLoader, baseImage);
+    }
+
+    public byte[] getBaseImage() {
+        byte[] image = baseImage;
+        if (image == null) {
+            synchronized (this) {
+                image = baseImage;
+                if (image == null) {
+                    image = baseImageLoader.get();
+                    baseImage = image;
+                }
+            }
+        }
+        return image;
+    }
+}
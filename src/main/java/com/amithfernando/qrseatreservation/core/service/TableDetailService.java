@@ -1,16 +1,20 @@
 package com.amithfernando.qrseatreservation.core.service;
 
 import com.amithfernando.qrseatreservation.core.enums.SeatStatus;
+import com.amithfernando.qrseatreservation.core.event.SeatLayoutChangedEvent;
 import com.amithfernando.qrseatreservation.core.model.SeatDetail;
 import com.amithfernando.qrseatreservation.core.model.TableDetail;
 import com.amithfernando.qrseatreservation.core.repsitory.SeatDetailRepository;
 import com.amithfernando.qrseatreservation.core.repsitory.TableDetailRepository;
 import com.amithfernando.qrseatreservation.ui.dto.TableDetailSummary;
+import com.amithfernando.qrseatreservation.ui.dto.TableOption;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 @Service
@@ -19,10 +23,15 @@ public class TableDetailService {
 
     private final TableDetailRepository tableDetailRepository;
     private final SeatDetailRepository seatDetailRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SeatStateIndex seatStateIndex;
 
-    public TableDetailService(TableDetailRepository tableDetailRepository, SeatDetailRepository seatDetailRepository) {
+    public TableDetailService(TableDetailRepository tableDetailRepository, SeatDetailRepository seatDetailRepository,
+                              ApplicationEventPublisher eventPublisher, SeatStateIndex seatStateIndex) {
         this.tableDetailRepository = tableDetailRepository;
         this.seatDetailRepository = seatDetailRepository;
+        this.eventPublisher = eventPublisher;
+        this.seatStateIndex = seatStateIndex;
     }
 
     @Transactional
@@ -41,6 +50,7 @@ public class TableDetailService {
         tableDetail.setSeatDetails(seatDetails);
         tableDetailRepository.save(tableDetail);
         log.info("ReservationTable created: {}", tableDetail);
+        eventPublisher.publishEvent(new SeatLayoutChangedEvent(tableDetail.getTableName()));
 
     }
 
@@ -77,6 +87,7 @@ public class TableDetailService {
         tableDetail.setSeatDetails(seatDetails);
         tableDetailRepository.save(tableDetail);
         log.info("Table detail created: {}", tableDetail);
+        eventPublisher.publishEvent(new SeatLayoutChangedEvent(tableDetail.getTableName()));
 
     }
 
@@ -85,6 +96,24 @@ public class TableDetailService {
         return tableDetailRepository.findAll();
     }
 
+    // Tables to pick from, without their seats
+    public List<TableOption> getTableOptions() {
+        return tableDetailRepository.findTableOptions();
+    }
+
+    // Loads only the table's free seats, picked from the seat state index; the status check drops any the index
+    // has not caught up with yet
+    public List<SeatDetail> getFreeSeats(Long tableId) {
+        List<Long> seatIds = seatStateIndex.freeSeatIds(tableId);
+        if (seatIds.isEmpty()) {
+            return List.of();
+        }
+        return seatDetailRepository.findAllById(seatIds).stream()
+                .filter(SeatDetail::isAvailable)
+                .sorted(Comparator.comparing(SeatDetail::getId))
+                .toList();
+    }
+
     public TableDetailSummary getGetTableSummary() {
         List<TableDetail> all = tableDetailRepository.findAll();
         TableDetailSummary tableDetailSummary = new TableDetailSummary();
@@ -95,5 +124,6 @@ public class TableDetailService {
 
     public void delete(TableDetail item) {
         tableDetailRepository.delete(item);
+        eventPublisher.publishEvent(new SeatLayoutChangedEvent(item.getTableName()));
     }
 }
@@ -1,21 +1,34 @@
 package com.amithfernando.qrseatreservation.core.service;
 
 import com.amithfernando.qrseatreservation.core.enums.TicketStatus;
-import com.amithfernando.qrseatreservation.core.model.Setting;
 import com.amithfernando.qrseatreservation.core.model.Ticket;
+import com.amithfernando.qrseatreservation.core.repsitory.TicketImageRepository;
 import com.amithfernando.qrseatreservation.core.repsitory.TicketRepository;
-import com.amithfernando.qrseatreservation.core.util.QrTicketGenerator;
+import com.amithfernando.qrseatreservation.core.util.TicketGenerationPipeline;
+import com.amithfernando.qrseatreservation.core.util.TicketNumberPermutation;
+import com.amithfernando.qrseatreservation.core.util.TicketTemplate;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.UncheckedIOException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -23,55 +36,114 @@ import java.util.zip.ZipOutputStream;
 @Slf4j
 public class TicketService {
 
+    private static final int QUEUE_CAPACITY = 64;
+    private static final int BATCH_SIZE = 100;
+    private static final int ZIP_FETCH_SIZE = 50;
+
     private final TicketRepository ticketRepository;
+    private final TicketImageRepository ticketImageRepository;
     private final SettingService settingService;
+    private final TicketSigningService ticketSigningService;
+
+    private final AtomicReference<TicketTemplate> template = new AtomicReference<>();
+
+    @Value("${settings.ticket.generationWorkers:0}")
+    private int generationWorkers;
 
-    public TicketService(TicketRepository ticketRepository, SettingService settingService) {
+    public TicketService(TicketRepository ticketRepository, TicketImageRepository ticketImageRepository, SettingService settingService,
+                         TicketSigningService ticketSigningService) {
         this.ticketRepository = ticketRepository;
+        this.ticketImageRepository = ticketImageRepository;
         this.settingService = settingService;
+        this.ticketSigningService = ticketSigningService;
     }
 
     public void generateTicketNos() throws IOException {
-        Setting setting = settingService.getSetting();
-        log.info("Generating " + setting.getMaxNoOfTickets() + " tickets");
-        for (int i = 0; i < setting.getMaxNoOfTickets(); i++) {
-            String ticketNo = "";
-            do {
-                ticketNo = generateTicketNo();
-            }
-            while (ticketRepository.findByTicketNo(ticketNo) != null) ;
-            QrTicketGenerator qrTicketGenerator = new QrTicketGenerator(
-                    getBaseImage(),
-                    setting.getFontSize(),
-                    setting.getQrX(),
-                    setting.getQrY(),
-                    setting.getTextX(),
-                    setting.getTextY()
+        SettingSnapshot setting = settingService.getSnapshot();
+        int count = setting.getMaxNoOfTickets();
+        int workers = generationWorkers > 0 ? generationWorkers : Runtime.getRuntime().availableProcessors();
+        long ticketKey = setting.getTicketKey() != null ? setting.getTicketKey() : new SecureRandom().nextLong();
+        long startIndex = setting.getNextTicketIndex() != null ? setting.getNextTicketIndex() : 0L;
+        TicketNumberPermutation permutation = new TicketNumberPermutation(ticketKey, setting.getNoOfDigits());
+        if (permutation.domainSize() - startIndex < count) {
+            throw new IllegalStateException("Ticket number space exhausted: " + count + " requested, "
+                    + Math.max(0, permutation.domainSize() - startIndex) + " left for " + setting.getNoOfDigits() + " digits");
+        }
+        log.info("Generating {} tickets from index {} with {} workers", count, startIndex, workers);
+        TicketTemplate template = getTemplate();
+        AtomicLong nextIndex = new AtomicLong(startIndex);
+        long start = System.nanoTime();
+        try {
+            int generated = new TicketGenerationPipeline(workers, QUEUE_CAPACITY, BATCH_SIZE).run(
+                    uniqueTicketNos(setting, permutation, nextIndex, count),
+                    ticketNo -> template.render(ticketNo, ticketSigningService.qrPayload(ticketNo)),
+                    // the image cascades the new ticket, both rows are written in the same transaction
+                    ticketImageRepository::saveAll
             );
-            BufferedImage bufferedImage = qrTicketGenerator.generateTicketImage(ticketNo);
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            ImageIO.write(bufferedImage, "jpg", baos);
-            baos.flush();
-            byte[] imageInByte = baos.toByteArray();
-            ticketRepository.save(new Ticket( ticketNo, TicketStatus.AVAILABLE, imageInByte));
+            double seconds = (System.nanoTime() - start) / 1e9;
+            log.info("Generated {} tickets in {} s ({} tickets/s)", generated, String.format("%.1f", seconds), String.format("%.1f", generated / seconds));
+        } finally {
+            // also on failure: indexes handed out are skipped next time, a rerun never reissues a saved number
+            settingService.updateTicketNumbering(setting, ticketKey, nextIndex.get());
         }
     }
 
+    // Lazily yields count numbers from the keyed permutation, starting at nextIndex. Existing numbers
+    // (tickets from before this scheme, or from another prefix/width) are loaded once and skipped.
+    private Iterator<String> uniqueTicketNos(SettingSnapshot setting, TicketNumberPermutation permutation, AtomicLong nextIndex, int count) {
+        Set<String> existing = new HashSet<>(ticketRepository.findAllTicketNos());
+        String format = "%0" + setting.getNoOfDigits() + "d";
+        return new Iterator<>() {
+            private int issued;
+
+            @Override
+            public boolean hasNext() {
+                return issued < count;
+            }
+
+            @Override
+            public String next() {
+                while (nextIndex.get() < permutation.domainSize()) {
+                    String ticketNo = setting.getTicketPrefix() + String.format(format, permutation.permute(nextIndex.getAndIncrement()));
+                    if (!existing.contains(ticketNo)) {
+                        issued++;
+                        return ticketNo;
+                    }
+                }
+                throw new IllegalStateException("Ticket number space exhausted after " + issued + " tickets");
+            }
+        };
+    }
+
     public BufferedImage generateQrTicketPreview(int fontSize, int qrX, int qrY, int textX, int textY, String ticketNo){
-        QrTicketGenerator qrTicketGenerator = new QrTicketGenerator(
-                getBaseImage(),
-                fontSize,
-                qrX,
-                qrY,
-                textX,
-                textY
+        return getTemplate().withLayout(fontSize, qrX, qrY, textX, textY)
+                .render(ticketNo, ticketSigningService.qrPayload(ticketNo));
+    }
+
+    // Decoded once per settings version; SettingService.save swaps in a snapshot with a new version and the
+    // next call re-decodes. No settings query once the snapshot and its base image are loaded.
+    TicketTemplate getTemplate() {
+        SettingSnapshot setting = settingService.getSnapshot();
+        TicketTemplate current = template.get();
+        if (current != null && current.getVersion() == setting.getVersion()) {
+            return current;
+        }
+        TicketTemplate fresh = new TicketTemplate(
+                setting.getVersion(),
+                decodeBaseImage(setting.getBaseImage()),
+                setting.getFontSize(),
+                setting.getQrX(),
+                setting.getQrY(),
+                setting.getTextX(),
+                setting.getTextY()
         );
-        BufferedImage bufferedImage = qrTicketGenerator.generateTicketImage(ticketNo);
-        return bufferedImage;
+        template.set(fresh);
+        log.info("Ticket template decoded for settings version {}", setting.getVersion());
+        return fresh;
     }
 
-    private BufferedImage getBaseImage() {
-        try (ByteArrayInputStream bais = new ByteArrayInputStream(settingService.getSetting().getBaseImage())) {
+    private static BufferedImage decodeBaseImage(byte[] data) {
+        try (ByteArrayInputStream bais = new ByteArrayInputStream(data)) {
             BufferedImage img = ImageIO.read(bais);
             if (img == null) {
                 throw new IllegalArgumentException("Unsupported or corrupted image data");
@@ -84,21 +156,19 @@ public class TicketService {
 
     }
 
-    private String generateTicketNo() {
-        Setting setting = settingService.getSetting();
-        return setting.getTicketPrefix() + String.format("%0" + setting.getNoOfDigits() + "d", (int) (Math.random() * Math.pow(10, setting.getNoOfDigits())));
-    }
-
+    // Hands out count ticket numbers in one round trip; concurrent reservations skip each other's
+    // locked rows instead of waiting, and the pool is never loaded into memory
     @Transactional
-    public String getTicketNumber() {
-        List<Ticket> availableTickets = ticketRepository.findTcicketByStatus(TicketStatus.AVAILABLE);
-        if (availableTickets.size() > 0) {
-           Ticket ticket = availableTickets.get(0);
-           ticket.setStatus(TicketStatus.USED);
-           ticketRepository.save(ticket);
-           return ticket.getTicketNo();
+    public List<String> allocateTicketNumbers(int count) {
+        if (count <= 0) {
+            return List.of();
+        }
+        List<String> ticketNos = ticketRepository.lockAvailableTicketNos(count);
+        if (ticketNos.size() < count) {
+            throw new IllegalStateException("Not enough available tickets: requested " + count + ", available " + ticketNos.size());
         }
-        return null;
+        ticketRepository.updateStatus(ticketNos, TicketStatus.USED, LocalDateTime.now());
+        return ticketNos;
     }
 
 
@@ -110,19 +180,35 @@ public class TicketService {
         return ticketRepository.findByTicketNo(ticketNo);
     }
 
-    public  byte[] createZipFromImages(List<Ticket> tickets) throws IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-
-        try (ZipOutputStream zos = new ZipOutputStream(baos)) {
-            for (Ticket ticket : tickets) {
-                String entryName =  (ticket.getTicketNo() + ".png");
-                ZipEntry entry = new ZipEntry(entryName);
+    // Streams the tickets into out as a ZIP, fetching ZIP_FETCH_SIZE tickets per query so memory stays flat
+    // however large the bundle is. The images are already compressed JPEGs, so entries are STORED as-is.
+    public void writeTicketZip(List<String> ticketNos, OutputStream out) throws IOException {
+        ZipOutputStream zos = new ZipOutputStream(out);
+        CRC32 crc = new CRC32();
+        for (int from = 0; from < ticketNos.size(); from += ZIP_FETCH_SIZE) {
+            List<String> chunk = ticketNos.subList(from, Math.min(from + ZIP_FETCH_SIZE, ticketNos.size()));
+            Map<String, byte[]> images = new HashMap<>();
+            ticketImageRepository.findByTicketNoIn(chunk).forEach(i -> images.put(i.getTicket().getTicketNo(), i.getData()));
+            for (String ticketNo : chunk) {
+                byte[] data = images.get(ticketNo);
+                if (data == null) {
+                    log.warn("Ticket {} has no image, left out of the ZIP", ticketNo);
+                    continue;
+                }
+                crc.reset();
+                crc.update(data);
+                ZipEntry entry = new ZipEntry(ticketNo + ".png");
+                entry.setMethod(ZipEntry.STORED);
+                entry.setSize(data.length);
+                entry.setCompressedSize(data.length);
+                entry.setCrc(crc.getValue());
                 zos.putNextEntry(entry);
-                zos.write(ticket.getData());
+                zos.write(data);
                 zos.closeEntry();
             }
         }
-
-        return baos.toByteArray();
+        // the response stream belongs to the caller, only the ZIP is finished here
+        zos.finish();
+        zos.flush();
     }
 }
@@ -0,0 +1,58 @@
+package com.amithfernando.qrseatreservation.core.service;
+
+import com.amithfernando.qrseatreservation.core.util.TicketPayloadCodec;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * What goes into a ticket's QR code and whether a scanned code is worth a lookup. With signing on, new tickets
+ * carry a signed payload and a scan with a bad signature, another event's id or foreign content is rejected
+ * here, before ReservationService is asked. Plain ticket numbers keep working for tickets printed before.
+ */
+@Service
+@Slf4j
+public class TicketSigningService {
+
+    @Getter
+    private final boolean enabled;
+    private final boolean acceptPlain;
+    private final TicketPayloadCodec codec;
+
+    public TicketSigningService(@Value("${settings.ticket.signing.enabled:false}") boolean enabled,
+                                @Value("${settings.ticket.signing.key:}") String key,
+                                @Value("${settings.ticket.signing.eventId:EVENT}") String eventId,
+                                @Value("${settings.ticket.signing.acceptPlain:true}") boolean acceptPlain) {
+        this.enabled = enabled;
+        this.acceptPlain = acceptPlain;
+        // a missing or short key stops the start, tickets are never printed with a guessable signature
+        this.codec = enabled ? new TicketPayloadCodec(key.getBytes(StandardCharsets.UTF_8), eventId) : null;
+        log.info("Ticket QR signing {}", enabled ? "on for event " + eventId : "off");
+    }
+
+    // the QR content for a ticket, its bare number while signing is off
+    public String qrPayload(String ticketNo) {
+        return enabled ? codec.encode(ticketNo) : ticketNo;
+    }
+
+    /**
+     * @return the ticket number to look up, or null when the scan is rejected without one
+     */
+    public String ticketNoOf(String scanned) {
+        if (!enabled) {
+            return scanned == null || scanned.isBlank() ? null : scanned.trim();
+        }
+        TicketPayloadCodec.Result result = codec.decode(scanned);
+        return switch (result.outcome()) {
+            case SIGNED -> result.ticketNo();
+            case PLAIN -> acceptPlain ? result.ticketNo() : null;
+            case BAD_SIGNATURE, OTHER_EVENT, MALFORMED -> {
+                log.warn("Rejected scanned code: {}", result.outcome());
+                yield null;
+            }
+        };
+    }
+}
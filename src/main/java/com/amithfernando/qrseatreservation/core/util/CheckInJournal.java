@@ -0,0 +1,217 @@
+package com.amithfernando.qrseatreservation.core.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only check-in journal of a gate, one "ticketNo TAB gateId TAB epochMillis" line per check-in.
+ * append returns once the line is on disk. Appends arriving while a write is in progress are collected and
+ * written and forced together by the next writer, so concurrent scans share one fsync (group commit).
+ * How far the journal has been replayed is kept in a sidecar file next to it, replaced atomically.
+ */
+public final class CheckInJournal implements Closeable {
+
+    private final Path offsetFile;
+    private final FileChannel channel;
+    private final Object lock = new Object();
+    private Batch current = new Batch();
+    private boolean writing;
+
+    public CheckInJournal(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        this.offsetFile = directory.resolve("checkin.journal.offset");
+        this.channel = FileChannel.open(directory.resolve("checkin.journal"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        dropTornTail();
+        if (replayedOffset() > channel.size()) {
+            markReplayed(channel.size());
+        }
+    }
+
+    public void append(Entry entry) throws IOException {
+        byte[] line = entry.encode();
+        Batch batch;
+        synchronized (lock) {
+            batch = current;
+            batch.lines.add(line);
+            while (!batch.done && writing) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for the journal", e);
+                }
+            }
+            if (batch.done) {
+                batch.rethrow();
+                return;
+            }
+            // this thread writes the batch, appends from now on go to the next one
+            writing = true;
+            current = new Batch();
+        }
+
+        IOException error = null;
+        long size = channel.size();
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(batch.lines.stream().mapToInt(l -> l.length).sum());
+            batch.lines.forEach(buffer::put);
+            buffer.flip();
+            long position = size;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            error = e;
+            try {
+                // no half batch left behind, the callers were told it failed
+                channel.truncate(size);
+            } catch (IOException truncateError) {
+                e.addSuppressed(truncateError);
+            }
+        }
+        synchronized (lock) {
+            batch.done = true;
+            batch.error = error;
+            writing = false;
+            lock.notifyAll();
+        }
+        batch.rethrow();
+    }
+
+    // complete lines from offset on, at most max of them
+    public Chunk read(long offset, int max) throws IOException {
+        long size = channel.size();
+        List<Entry> entries = new ArrayList<>();
+        long position = offset;
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        StringBuilder line = new StringBuilder();
+        long lineStart = position;
+        while (position < size && entries.size() < max) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            buffer.flip();
+            int consumed = 0;
+            while (buffer.hasRemaining() && entries.size() < max) {
+                byte b = buffer.get();
+                consumed++;
+                if (b == '\n') {
+                    entries.add(Entry.decode(line.toString()));
+                    line.setLength(0);
+                    lineStart = position + consumed;
+                } else {
+                    line.append((char) (b & 0xFF));
+                }
+            }
+            position += consumed;
+        }
+        return new Chunk(entries, lineStart);
+    }
+
+    public long size() throws IOException {
+        return channel.size();
+    }
+
+    public long replayedOffset() throws IOException {
+        if (!Files.exists(offsetFile)) {
+            return 0;
+        }
+        String text = Files.readString(offsetFile, StandardCharsets.US_ASCII).trim();
+        return text.isEmpty() ? 0 : Long.parseLong(text);
+    }
+
+    public void markReplayed(long offset) throws IOException {
+        Path tmp = offsetFile.resolveSibling(offsetFile.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            out.write(ByteBuffer.wrap(Long.toString(offset).getBytes(StandardCharsets.US_ASCII)));
+            out.force(true);
+        }
+        Files.move(tmp, offsetFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Starts the journal over once everything in it has been replayed; false while appends are in flight
+    public boolean truncateIfReplayed() throws IOException {
+        synchronized (lock) {
+            if (writing || !current.lines.isEmpty() || replayedOffset() != channel.size()) {
+                return false;
+            }
+            markReplayed(0);
+            channel.truncate(0);
+            channel.force(true);
+            return true;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // a crash mid-write can leave a partial last line, which was never acknowledged
+    private void dropTornTail() throws IOException {
+        long size = channel.size();
+        long end = size;
+        ByteBuffer one = ByteBuffer.allocate(1);
+        while (end > 0) {
+            one.clear();
+            channel.read(one, end - 1);
+            if (one.get(0) == '\n') {
+                break;
+            }
+            end--;
+        }
+        if (end < size) {
+            channel.truncate(end);
+            channel.force(true);
+        }
+    }
+
+    public record Entry(String ticketNo, String gateId, long epochMillis) {
+
+        public Entry {
+            if (ticketNo.indexOf('\t') >= 0 || ticketNo.indexOf('\n') >= 0 || gateId.indexOf('\t') >= 0
+                    || gateId.indexOf('\n') >= 0) {
+                throw new IllegalArgumentException("Tabs and line breaks cannot be journaled");
+            }
+        }
+
+        byte[] encode() {
+            return (ticketNo + '\t' + gateId + '\t' + epochMillis + '\n').getBytes(StandardCharsets.ISO_8859_1);
+        }
+
+        static Entry decode(String line) {
+            String[] parts = line.split("\t", 3);
+            return new Entry(parts[0], parts[1], Long.parseLong(parts[2]));
+        }
+    }
+
+    // entries read and the offset just after the last of them
+    public record Chunk(List<Entry> entries, long endOffset) {
+    }
+
+    private static final class Batch {
+        final List<byte[]> lines = new ArrayList<>();
+        boolean done;
+        IOException error;
+
+        void rethrow() throws IOException {
+            if (error != null) {
+                throw new IOException("Check-in journal write failed", error);
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.amithfernando.qrseatreservation.core.util;
+
+import com.amithfernando.qrseatreservation.core.model.TableDetail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Table centers on the seating layout grid, shared by the browser canvas and the server-side layout image
+public class PositionHelper {
+
+    private final int noOfColumns;
+    private final int tableSize;
+    private final List<TableDetail> allTables;
+
+    public PositionHelper(int noOfColumns, int tableSize, List<TableDetail> allTables) {
+        this.noOfColumns = noOfColumns;
+        this.tableSize = tableSize;
+        this.allTables = allTables;
+    }
+
+    public List<TablePosition> getTablePositions() {
+        List<TablePosition> tablePositions = new ArrayList<>();
+        int spaceRatio = 2 * tableSize;
+        int currentColumn = 1;
+        int currentRow = 1;
+
+        for (TableDetail table : allTables) {
+            int x = currentColumn * spaceRatio;
+            int y = currentRow * spaceRatio;
+
+            tablePositions.add(new TablePosition(table, x, y));
+
+            if (currentColumn == noOfColumns) {
+                // reset column, move to the next row
+                currentColumn = 1;
+                currentRow++;
+            } else {
+                currentColumn++;
+            }
+        }
+        return tablePositions;
+    }
+
+
+}
@@ -0,0 +1,192 @@
+package com.amithfernando.qrseatreservation.core.util;
+
+import io.nayuki.qrcodegen.QrCode;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Draws a QR code straight into a target image, without an intermediate image or per-pixel setRGB calls.
+ * One scanline per module row is built in a per-thread scratch buffer and copied scale times into the
+ * target's backing array. Image types without a known int/byte layout fall back to Graphics.fillRect runs.
+ * Output is clipped to the target bounds, like Graphics.drawImage.
+ */
+public final class QrRasterizer {
+
+    private static final ThreadLocal<int[]> INT_ROW = ThreadLocal.withInitial(() -> new int[0]);
+    private static final ThreadLocal<byte[]> BYTE_ROW = ThreadLocal.withInitial(() -> new byte[0]);
+
+    private QrRasterizer() {
+    }
+
+    public static void draw(QrCode qr, int scale, int border, BufferedImage target, int x, int y) {
+        draw(qr, scale, border, 0xFFFFFF, 0x000000, target, x, y);
+    }
+
+    /**
+     * @param lightColor RGB of light modules and the quiet zone
+     * @param darkColor  RGB of dark modules
+     */
+    public static void draw(QrCode qr, int scale, int border, int lightColor, int darkColor, BufferedImage target, int x, int y) {
+        Objects.requireNonNull(qr);
+        Objects.requireNonNull(target);
+        if (scale <= 0 || border < 0)
+            throw new IllegalArgumentException("Value out of range");
+        if (border > Integer.MAX_VALUE / 2 || qr.size + border * 2L > Integer.MAX_VALUE / scale)
+            throw new IllegalArgumentException("Scale or border too large");
+
+        int size = (qr.size + border * 2) * scale;
+        Area area = new Area(qr, scale, border, x, y,
+                Math.max(x, 0), Math.max(y, 0),
+                (int) Math.min((long) x + size, target.getWidth()),
+                (int) Math.min((long) y + size, target.getHeight()));
+        if (area.left >= area.right || area.top >= area.bottom) return;
+
+        WritableRaster raster = target.getRaster();
+        switch (target.getType()) {
+            case BufferedImage.TYPE_INT_RGB -> drawInt(area, raster, lightColor & 0xFFFFFF, darkColor & 0xFFFFFF);
+            case BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_INT_ARGB_PRE ->
+                    drawInt(area, raster, lightColor | 0xFF000000, darkColor | 0xFF000000);
+            case BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR, BufferedImage.TYPE_4BYTE_ABGR_PRE ->
+                    drawByte(area, raster, lightColor, darkColor);
+            default -> drawGraphics(area, target, lightColor, darkColor);
+        }
+    }
+
+    private static void drawInt(Area a, WritableRaster raster, int light, int dark) {
+        int[] data = ((DataBufferInt) raster.getDataBuffer()).getData();
+        SinglePixelPackedSampleModel sm = (SinglePixelPackedSampleModel) raster.getSampleModel();
+        int stride = sm.getScanlineStride();
+        int base = raster.getDataBuffer().getOffset()
+                + sm.getOffset(a.left - raster.getSampleModelTranslateX(), a.top - raster.getSampleModelTranslateY());
+        int width = a.right - a.left;
+
+        int[] row = INT_ROW.get();
+        if (row.length < width) {
+            row = new int[width];
+            INT_ROW.set(row);
+        }
+        for (int py = a.top; py < a.bottom; ) {
+            int moduleY = a.moduleAt(py - a.y);
+            int rowEnd = Math.min(a.bottom, a.pixelStart(moduleY + 1) + a.y);
+            fillRuns(a, moduleY, row, light, dark);
+            for (; py < rowEnd; py++) {
+                System.arraycopy(row, 0, data, base + (py - a.top) * stride, width);
+            }
+        }
+    }
+
+    private static void drawByte(Area a, WritableRaster raster, int lightColor, int darkColor) {
+        ComponentSampleModel sm = (ComponentSampleModel) raster.getSampleModel();
+        DataBuffer buffer = raster.getDataBuffer();
+        byte[] data = ((DataBufferByte) buffer).getData();
+        int pixelStride = sm.getPixelStride();
+        int stride = sm.getScanlineStride();
+        // start of the pixel, not of its first band as ComponentSampleModel.getOffset would give
+        int base = buffer.getOffset()
+                + (a.top - raster.getSampleModelTranslateY()) * stride
+                + (a.left - raster.getSampleModelTranslateX()) * pixelStride;
+        int width = a.right - a.left;
+        byte[] light = pixelBytes(sm, lightColor);
+        byte[] dark = pixelBytes(sm, darkColor);
+
+        byte[] row = BYTE_ROW.get();
+        if (row.length < width * pixelStride) {
+            row = new byte[width * pixelStride];
+            BYTE_ROW.set(row);
+        }
+        for (int py = a.top; py < a.bottom; ) {
+            int moduleY = a.moduleAt(py - a.y);
+            int rowEnd = Math.min(a.bottom, a.pixelStart(moduleY + 1) + a.y);
+            int px = a.left;
+            while (px < a.right) {
+                boolean isDark = a.qr.getModule(a.moduleAt(px - a.x), moduleY);
+                int runEnd = a.runEnd(px, moduleY, isDark);
+                byte[] pixel = isDark ? dark : light;
+                for (int i = (px - a.left) * pixelStride, end = (runEnd - a.left) * pixelStride; i < end; i += pixelStride) {
+                    System.arraycopy(pixel, 0, row, i, pixelStride);
+                }
+                px = runEnd;
+            }
+            for (; py < rowEnd; py++) {
+                System.arraycopy(row, 0, data, base + (py - a.top) * stride, width * pixelStride);
+            }
+        }
+    }
+
+    private static void drawGraphics(Area a, BufferedImage target, int lightColor, int darkColor) {
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setClip(a.left, a.top, a.right - a.left, a.bottom - a.top);
+            g.setColor(new Color(lightColor));
+            g.fillRect(a.left, a.top, a.right - a.left, a.bottom - a.top);
+            g.setColor(new Color(darkColor));
+            int firstRow = a.moduleAt(a.top - a.y);
+            int lastRow = a.moduleAt(a.bottom - 1 - a.y);
+            for (int moduleY = firstRow; moduleY <= lastRow; moduleY++) {
+                int top = a.pixelStart(moduleY) + a.y;
+                int px = a.left;
+                while (px < a.right) {
+                    boolean isDark = a.qr.getModule(a.moduleAt(px - a.x), moduleY);
+                    int runEnd = a.runEnd(px, moduleY, isDark);
+                    if (isDark) {
+                        g.fillRect(px, top, runEnd - px, a.scale);
+                    }
+                    px = runEnd;
+                }
+            }
+        } finally {
+            g.dispose();
+        }
+    }
+
+    // light and dark module runs of one module row, clipped to [left, right)
+    private static void fillRuns(Area a, int moduleY, int[] row, int light, int dark) {
+        int px = a.left;
+        while (px < a.right) {
+            boolean isDark = a.qr.getModule(a.moduleAt(px - a.x), moduleY);
+            int runEnd = a.runEnd(px, moduleY, isDark);
+            Arrays.fill(row, px - a.left, runEnd - a.left, isDark ? dark : light);
+            px = runEnd;
+        }
+    }
+
+    private static byte[] pixelBytes(ComponentSampleModel sm, int rgb) {
+        int[] bandOffsets = sm.getBandOffsets();
+        byte[] pixel = new byte[sm.getPixelStride()];
+        int[] samples = {(rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF, 0xFF};
+        for (int band = 0; band < bandOffsets.length; band++) {
+            pixel[bandOffsets[band]] = (byte) samples[band];
+        }
+        return pixel;
+    }
+
+    /** Placement of the scaled code, module coordinates are relative to the QR origin (quiet zone is negative / >= size). */
+    private record Area(QrCode qr, int scale, int border, int x, int y, int left, int top, int right, int bottom) {
+
+        int moduleAt(int offset) {
+            return offset / scale - border;
+        }
+
+        int pixelStart(int module) {
+            return (module + border) * scale;
+        }
+
+        // first pixel column after the run of same-coloured modules starting at px
+        int runEnd(int px, int moduleY, boolean isDark) {
+            int moduleX = moduleAt(px - x) + 1;
+            while (moduleX < qr.size + border && qr.getModule(moduleX, moduleY) == isDark) {
+                moduleX++;
+            }
+            return Math.min(right, pixelStart(moduleX) + x);
+        }
+    }
+}
@@ -4,7 +4,7 @@ import io.nayuki.qrcodegen.QrCode;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.util.Objects;
+import java.awt.image.ColorModel;
 
 public class QrTicketGenerator {
 
@@ -25,18 +25,24 @@ public class QrTicketGenerator {
     }
 
     public  BufferedImage generateTicketImage(String ticketNo){
+        return generateTicketImage(ticketNo, ticketNo);
+    }
+
+    // Draws onto a copy, the base image is never modified so one generator can be shared between threads.
+    // The printed number stays readable while the QR code may carry a signed payload.
+    public  BufferedImage generateTicketImage(String ticketNo, String qrText){
         try
         {
             BufferedImage text = convertTextToGraphic(ticketNo,new Font("Arial", Font.PLAIN, fontSize));
-            QrCode qr0 = QrCode.encodeText(ticketNo, QrCode.Ecc.MEDIUM);
-            BufferedImage img = toImage(qr0, 13, 1);
+            QrCode qr0 = QrCode.encodeText(qrText, QrCode.Ecc.MEDIUM);
 
-            Graphics g = baseImage.getGraphics();
-            g.drawImage(img, qrX, qrY, null);
+            BufferedImage ticket = copyOf(baseImage);
+            QrRasterizer.draw(qr0, 13, 1, ticket, qrX, qrY);
+            Graphics g = ticket.getGraphics();
             g.drawImage(text,textX,textY,null);
 
            g.dispose();
-           return baseImage;
+           return ticket;
         }
         catch (Exception e)
         {
@@ -77,25 +83,9 @@ public class QrTicketGenerator {
         return img;
     }
 
-    private static BufferedImage toImage(QrCode qr, int scale, int border, int lightColor, int darkColor) {
-        Objects.requireNonNull(qr);
-        if (scale <= 0 || border < 0)
-            throw new IllegalArgumentException("Value out of range");
-        if (border > Integer.MAX_VALUE / 2 || qr.size + border * 2L > Integer.MAX_VALUE / scale)
-            throw new IllegalArgumentException("Scale or border too large");
-
-        BufferedImage result = new BufferedImage((qr.size + border * 2) * scale, (qr.size + border * 2) * scale, BufferedImage.TYPE_INT_RGB);
-        for (int y = 0; y < result.getHeight(); y++) {
-            for (int x = 0; x < result.getWidth(); x++) {
-                boolean color = qr.getModule(x / scale - border, y / scale - border);
-                result.setRGB(x, y, color ? darkColor : lightColor);
-            }
-        }
-        return result;
-    }
-
-    private static BufferedImage toImage(QrCode qr, int scale, int border) {
-        return toImage(qr, scale, border, 0xFFFFFF, 0x000000);
+    private static BufferedImage copyOf(BufferedImage image) {
+        ColorModel cm = image.getColorModel();
+        return new BufferedImage(cm, image.copyData(null), cm.isAlphaPremultiplied(), null);
     }
 
 }
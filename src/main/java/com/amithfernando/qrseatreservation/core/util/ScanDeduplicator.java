@@ -0,0 +1,76 @@
+package com.amithfernando.qrseatreservation.core.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Recently scanned codes with the result of their lookup, for one scanner. A camera reads the same code many times
+ * a second; a repeat inside the window gets the cached result and is flagged as such, only new codes and codes
+ * whose window ran out are looked up. Bounded to the most recently used entries, so a busy gate never grows it.
+ */
+public final class ScanDeduplicator<V> {
+
+    private final long windowNanos;
+    private final LongSupplier nanoClock;
+    private final Map<String, Seen<V>> seen;
+    private final LongAdder repeats = new LongAdder();
+    private final LongAdder lookups = new LongAdder();
+
+    public ScanDeduplicator(long windowMillis, int capacity) {
+        this(windowMillis, capacity, System::nanoTime);
+    }
+
+    ScanDeduplicator(long windowMillis, int capacity, LongSupplier nanoClock) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.nanoClock = nanoClock;
+        this.seen = new LinkedHashMap<>(capacity * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Seen<V>> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    // The cached result while code was seen within the window, otherwise the loader's, which is then cached
+    public Scan<V> scan(String code, Function<String, V> loader) {
+        long now = nanoClock.getAsLong();
+        synchronized (this) {
+            Seen<V> last = seen.get(code);
+            if (last != null && now - last.loadedAt() < windowNanos) {
+                repeats.increment();
+                return new Scan<>(last.value(), true);
+            }
+        }
+        // looked up outside the lock; two threads racing on a new code both load it, the later one is kept
+        V value = loader.apply(code);
+        lookups.increment();
+        synchronized (this) {
+            seen.put(code, new Seen<>(value, now));
+        }
+        return new Scan<>(value, false);
+    }
+
+    // after a state change (a check-in) cached results are stale
+    public synchronized void clear() {
+        seen.clear();
+    }
+
+    // lookups avoided
+    public long repeats() {
+        return repeats.sum();
+    }
+
+    public long lookups() {
+        return lookups.sum();
+    }
+
+    public record Scan<V>(V value, boolean repeat) {
+    }
+
+    private record Seen<V>(V value, long loadedAt) {
+    }
+}
@@ -0,0 +1,254 @@
+package com.amithfernando.qrseatreservation.core.util;
+
+import com.amithfernando.qrseatreservation.core.enums.SeatStatus;
+import com.amithfernando.qrseatreservation.core.model.SeatDetail;
+import com.amithfernando.qrseatreservation.core.model.TableDetail;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.font.TextLayout;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Draws the whole venue, every table and seat, as a PNG or an SVG. Uses the PositionHelper grid and the seat
+ * placement of seat-canvas.js, so the image matches the on-screen layout at zoom 1 regardless of any window size.
+ * Seat holds are per session and not part of the image.
+ */
+public class SeatingLayoutRenderer {
+
+    // PNGs larger than this are scaled down to fit, SVGs are always full size
+    private static final int MAX_PNG_SIDE = 16_384;
+    private static final long MAX_PNG_PIXELS = 64L * 1024 * 1024;
+    private static final int MARGIN = 20;
+    private static final String TABLE_COLOR = "#FFA500";
+    private static final String[][] LEGEND = {
+            {"Available", "#90EE90"},
+            {"Reserved", "#FF0000"},
+            {"Checked-in", "#0000FF"},
+            {"Unavailable", "#D3D3D3"}
+    };
+
+    private final int tableSize;
+    private final int seatSize;
+    private final int noOfColumns;
+
+    public SeatingLayoutRenderer(int tableSize, int seatSize, int noOfColumns) {
+        this.tableSize = tableSize;
+        this.seatSize = seatSize;
+        this.noOfColumns = noOfColumns;
+    }
+
+    public byte[] renderPng(List<TableDetail> tables) {
+        List<TablePosition> positions = new PositionHelper(noOfColumns, tableSize, tables).getTablePositions();
+        Dimension size = size(positions);
+        double scale = Math.min(1.0, Math.min(
+                Math.sqrt((double) MAX_PNG_PIXELS / ((long) size.width * size.height)),
+                (double) MAX_PNG_SIDE / Math.max(size.width, size.height)));
+        int width = Math.max(1, (int) Math.floor(size.width * scale));
+        int height = Math.max(1, (int) Math.floor(size.height * scale));
+
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.scale(scale, scale);
+            paint(new GraphicsPainter(g), positions);
+        } finally {
+            g.dispose();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "png", out);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode seating layout", e);
+        }
+        return out.toByteArray();
+    }
+
+    public byte[] renderSvg(List<TableDetail> tables) {
+        List<TablePosition> positions = new PositionHelper(noOfColumns, tableSize, tables).getTablePositions();
+        Dimension size = size(positions);
+        SvgPainter svg = new SvgPainter(size);
+        paint(svg, positions);
+        return svg.finish().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private Dimension size(List<TablePosition> positions) {
+        int reach = seatDistance() + seatSize / 2 + 2;
+        int width = 600;
+        int height = 200;
+        for (TablePosition position : positions) {
+            width = Math.max(width, position.getX() + reach + MARGIN);
+            height = Math.max(height, position.getY() + reach + MARGIN);
+        }
+        return new Dimension(width, height);
+    }
+
+    private int seatDistance() {
+        return tableSize / 2 + 25;
+    }
+
+    private void paint(Painter painter, List<TablePosition> positions) {
+        // stage and legend as on screen
+        painter.rect(250, 10, 300, 40, "#444444");
+        painter.text(380, 35, "STAGE", 20, "#FFFFFF", false, false);
+        for (int i = 0; i < LEGEND.length; i++) {
+            int y = 70 + i * 20;
+            painter.rect(20, y - 6, 12, 12, LEGEND[i][1]);
+            painter.text(40, y + 5, LEGEND[i][0], 14, "#000000", false, false);
+        }
+
+        double seatDistance = tableSize / 2.0 + 25;
+        int tableRadius = tableSize / 2;
+        int seatRadius = seatSize / 2;
+        for (TablePosition position : positions) {
+            TableDetail table = position.getTable();
+            int cx = position.getX();
+            int cy = position.getY();
+            painter.circle(cx, cy, tableRadius, TABLE_COLOR);
+            painter.text(cx, cy, table.getTableName(), 16, "#000000", true, false);
+
+            List<SeatDetail> seats = table.getSeatDetails() == null ? List.of() : table.getSeatDetails();
+            for (int s = 0; s < seats.size(); s++) {
+                double angle = 2 * Math.PI * s / seats.size();
+                int sx = (int) (cx + Math.cos(angle) * seatDistance);
+                int sy = (int) (cy + Math.sin(angle) * seatDistance);
+                SeatDetail seat = seats.get(s);
+                painter.circle(sx, sy, seatRadius, seatColor(seat.getSeatStatus()));
+                painter.text(sx, sy, seat.getSeatNo(), 12, "#000000", true, true);
+            }
+        }
+    }
+
+    private static String seatColor(SeatStatus status) {
+        if (status == null) {
+            // not bookable, as SeatDetail.isAvailable() sees it
+            return LEGEND[3][1];
+        }
+        return switch (status) {
+            case RESERVED -> LEGEND[1][1];
+            case CHECKED_IN -> LEGEND[2][1];
+            case UNAVAILABLE -> LEGEND[3][1];
+            default -> LEGEND[0][1];
+        };
+    }
+
+    // the handful of shapes the layout is made of, drawn once per output format
+    private interface Painter {
+        void rect(int x, int y, int width, int height, String fill);
+
+        // filled, with a thin black outline
+        void circle(int cx, int cy, int radius, String fill);
+
+        // centered texts are centered on (x, y), others start at x on the baseline y
+        void text(int x, int y, String text, int size, String fill, boolean centered, boolean outlined);
+    }
+
+    private static final class GraphicsPainter implements Painter {
+
+        private final Graphics2D g;
+
+        GraphicsPainter(Graphics2D g) {
+            this.g = g;
+        }
+
+        @Override
+        public void rect(int x, int y, int width, int height, String fill) {
+            g.setColor(Color.decode(fill));
+            g.fillRect(x, y, width, height);
+        }
+
+        @Override
+        public void circle(int cx, int cy, int radius, String fill) {
+            Ellipse2D circle = new Ellipse2D.Double(cx - radius, cy - radius, 2.0 * radius, 2.0 * radius);
+            g.setColor(Color.decode(fill));
+            g.fill(circle);
+            g.setColor(Color.BLACK);
+            g.setStroke(new BasicStroke(1f));
+            g.draw(circle);
+        }
+
+        @Override
+        public void text(int x, int y, String text, int size, String fill, boolean centered, boolean outlined) {
+            if (text == null || text.isEmpty()) {
+                return;
+            }
+            FontRenderContext frc = g.getFontRenderContext();
+            TextLayout layout = new TextLayout(text, new Font(Font.SANS_SERIF, Font.PLAIN, size), frc);
+            float tx = x;
+            float ty = y;
+            if (centered) {
+                tx -= (float) layout.getBounds().getWidth() / 2;
+                ty += (layout.getAscent() - layout.getDescent()) / 2;
+            }
+            Shape outline = layout.getOutline(AffineTransform.getTranslateInstance(tx, ty));
+            if (outlined) {
+                g.setColor(Color.WHITE);
+                g.setStroke(new BasicStroke(3f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+                g.draw(outline);
+            }
+            g.setColor(Color.decode(fill));
+            g.fill(outline);
+        }
+    }
+
+    private static final class SvgPainter implements Painter {
+
+        private final StringBuilder svg = new StringBuilder(64 * 1024);
+
+        SvgPainter(Dimension size) {
+            svg.append("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"").append(size.width)
+                    .append("\" height=\"").append(size.height)
+                    .append("\" viewBox=\"0 0 ").append(size.width).append(' ').append(size.height)
+                    .append("\" font-family=\"Arial, sans-serif\">\n")
+                    .append("<rect width=\"100%\" height=\"100%\" fill=\"#FFFFFF\"/>\n");
+        }
+
+        @Override
+        public void rect(int x, int y, int width, int height, String fill) {
+            svg.append(String.format(Locale.ROOT, "<rect x=\"%d\" y=\"%d\" width=\"%d\" height=\"%d\" fill=\"%s\"/>%n",
+                    x, y, width, height, fill));
+        }
+
+        @Override
+        public void circle(int cx, int cy, int radius, String fill) {
+            svg.append(String.format(Locale.ROOT, "<circle cx=\"%d\" cy=\"%d\" r=\"%d\" fill=\"%s\" stroke=\"#000000\"/>%n",
+                    cx, cy, radius, fill));
+        }
+
+        @Override
+        public void text(int x, int y, String text, int size, String fill, boolean centered, boolean outlined) {
+            if (text == null || text.isEmpty()) {
+                return;
+            }
+            svg.append(String.format(Locale.ROOT, "<text x=\"%d\" y=\"%d\" font-size=\"%d\" fill=\"%s\"", x, y, size, fill));
+            if (centered) {
+                svg.append(" text-anchor=\"middle\" dominant-baseline=\"central\"");
+            }
+            if (outlined) {
+                svg.append(" stroke=\"#FFFFFF\" stroke-width=\"3\" paint-order=\"stroke\"");
+            }
+            svg.append('>').append(escape(text)).append("</text>\n");
+        }
+
+        String finish() {
+            return svg.append("</svg>\n").toString();
+        }
+
+        private static String escape(String text) {
+            return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.amithfernando.qrseatreservation.core.util;
+
+import com.amithfernando.qrseatreservation.core.model.TableDetail;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TablePosition {
+    private TableDetail table;
+    private  int x;
+    private  int y;
+
+    @Override
+    public String toString() {
+        return "TablePosition{" +
+                "table=" + table.getTableName() +
+                ", x=" + x +
+                ", y=" + y +
+                '}';
+    }
+}
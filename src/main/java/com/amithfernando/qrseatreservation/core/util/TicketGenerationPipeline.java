@@ -0,0 +1,174 @@
+package com.amithfernando.qrseatreservation.core.util;
+
+import com.amithfernando.qrseatreservation.core.enums.TicketStatus;
+import com.amithfernando.qrseatreservation.core.model.Ticket;
+import com.amithfernando.qrseatreservation.core.model.TicketImage;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Generates tickets in four stages joined by bounded queues:
+ * number generation (one thread) -> rendering (N workers) -> JPEG encoding (N workers) -> batched persistence (caller thread).
+ * A full queue blocks the stage feeding it, so a slow stage throttles the ones before it instead of buffering images.
+ */
+@Slf4j
+public class TicketGenerationPipeline {
+
+    private static final RenderedTicket END_OF_RENDER = new RenderedTicket(null, null);
+    private static final EncodedTicket END_OF_ENCODE = new EncodedTicket(null, null);
+    private static final String END_OF_NUMBERS = new String("END");
+
+    private final int workers;
+    private final int queueCapacity;
+    private final int batchSize;
+
+    public TicketGenerationPipeline(int workers, int queueCapacity, int batchSize) {
+        if (workers <= 0 || queueCapacity <= 0 || batchSize <= 0)
+            throw new IllegalArgumentException("Value out of range");
+        this.workers = workers;
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @param ticketNos iterator producing unique ticket numbers, consumed on a single thread
+     * @param renderer  thread-safe ticket renderer
+     * @param persister receives batches of at most batchSize new tickets with their images, always on the calling thread
+     * @return number of tickets handed to the persister
+     */
+    public int run(Iterator<String> ticketNos, Function<String, BufferedImage> renderer, Consumer<List<TicketImage>> persister) throws IOException {
+        BlockingQueue<String> numberQueue = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<RenderedTicket> renderQueue = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<EncodedTicket> encodeQueue = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicInteger activeRenderers = new AtomicInteger(workers);
+        AtomicInteger activeEncoders = new AtomicInteger(workers);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        AtomicInteger threadNo = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(1 + 2 * workers, r -> {
+            Thread t = new Thread(r, "ticket-gen-" + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            executor.execute(stage(failure, executor, () -> {
+                while (ticketNos.hasNext()) {
+                    numberQueue.put(ticketNos.next());
+                }
+                for (int i = 0; i < workers; i++) {
+                    numberQueue.put(END_OF_NUMBERS);
+                }
+            }));
+            for (int i = 0; i < workers; i++) {
+                executor.execute(stage(failure, executor, () -> {
+                    String ticketNo;
+                    while ((ticketNo = numberQueue.take()) != END_OF_NUMBERS) {
+                        BufferedImage image = renderer.apply(ticketNo);
+                        if (image == null) {
+                            throw new IllegalStateException("Failed to render ticket " + ticketNo);
+                        }
+                        renderQueue.put(new RenderedTicket(ticketNo, image));
+                    }
+                    if (activeRenderers.decrementAndGet() == 0) {
+                        for (int w = 0; w < workers; w++) {
+                            renderQueue.put(END_OF_RENDER);
+                        }
+                    }
+                }));
+                executor.execute(stage(failure, executor, () -> {
+                    RenderedTicket rendered;
+                    while ((rendered = renderQueue.take()) != END_OF_RENDER) {
+                        encodeQueue.put(new EncodedTicket(rendered.ticketNo(), toJpeg(rendered.image())));
+                    }
+                    if (activeEncoders.decrementAndGet() == 0) {
+                        encodeQueue.put(END_OF_ENCODE);
+                    }
+                }));
+            }
+
+            int persisted = 0;
+            List<TicketImage> batch = new ArrayList<>(batchSize);
+            while (true) {
+                EncodedTicket encoded = encodeQueue.poll(100, TimeUnit.MILLISECONDS);
+                rethrow(failure.get());
+                if (encoded == null) continue;
+                if (encoded == END_OF_ENCODE) break;
+                batch.add(new TicketImage(new Ticket(encoded.ticketNo(), TicketStatus.AVAILABLE), encoded.data()));
+                if (batch.size() == batchSize) {
+                    persister.accept(batch);
+                    persisted += batch.size();
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                persister.accept(batch);
+                persisted += batch.size();
+            }
+            return persisted;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Ticket generation interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static byte[] toJpeg(BufferedImage image) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        if (!ImageIO.write(image, "jpg", baos)) {
+            throw new IOException("No JPEG writer for image type " + image.getType());
+        }
+        return baos.toByteArray();
+    }
+
+    private static Runnable stage(AtomicReference<Throwable> failure, ExecutorService executor, Stage stage) {
+        return () -> {
+            try {
+                stage.run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Throwable t) {
+                if (failure.compareAndSet(null, t)) {
+                    log.error("Ticket generation stage failed", t);
+                }
+                // unblock the other stages, the caller reports the failure
+                executor.shutdownNow();
+            }
+        };
+    }
+
+    private static void rethrow(Throwable t) throws IOException {
+        if (t == null) return;
+        if (t instanceof IOException io) throw io;
+        if (t instanceof RuntimeException re) throw re;
+        if (t instanceof Error err) throw err;
+        throw new IOException(t);
+    }
+
+    @FunctionalInterface
+    private interface Stage {
+        void run() throws Exception;
+    }
+
+    private record RenderedTicket(String ticketNo, BufferedImage image) {
+    }
+
+    private record EncodedTicket(String ticketNo, byte[] data) {
+    }
+}
@@ -0,0 +1,69 @@
+package com.amithfernando.qrseatreservation.core.util;
+
+/**
+ * Keyed bijection on [0, 10^digits): issuing permute(0), permute(1), ... yields unique, non-sequential
+ * numbers of the configured width without ever checking the database for collisions.
+ * A balanced Feistel network over the smallest even bit width covering the range is cycle-walked
+ * until the result falls inside it (at most 4 walks are expected per number).
+ * Scrambles numbering, it is not meant as a cryptographic guarantee against guessing.
+ */
+public final class TicketNumberPermutation {
+
+    private static final int ROUNDS = 6;
+    public static final int MAX_DIGITS = 18;
+
+    private final long domainSize;
+    private final int halfBits;
+    private final long halfMask;
+    private final long[] roundKeys = new long[ROUNDS];
+
+    public TicketNumberPermutation(long key, int digits) {
+        if (digits <= 0 || digits > MAX_DIGITS)
+            throw new IllegalArgumentException("Digits must be between 1 and " + MAX_DIGITS);
+        long size = 1;
+        for (int i = 0; i < digits; i++) {
+            size *= 10;
+        }
+        this.domainSize = size;
+        int bits = 64 - Long.numberOfLeadingZeros(size - 1);
+        this.halfBits = Math.max(1, (bits + 1) / 2);
+        this.halfMask = (1L << halfBits) - 1;
+        long k = key;
+        for (int i = 0; i < ROUNDS; i++) {
+            k = mix(k + 0x9E3779B97F4A7C15L);
+            roundKeys[i] = k;
+        }
+    }
+
+    public long domainSize() {
+        return domainSize;
+    }
+
+    public long permute(long index) {
+        if (index < 0 || index >= domainSize)
+            throw new IllegalArgumentException("Index out of range: " + index);
+        long value = index;
+        do {
+            value = encrypt(value);
+        } while (value >= domainSize);
+        return value;
+    }
+
+    private long encrypt(long value) {
+        long left = value >>> halfBits;
+        long right = value & halfMask;
+        for (long roundKey : roundKeys) {
+            long next = left ^ (mix(right ^ roundKey) & halfMask);
+            left = right;
+            right = next;
+        }
+        return (left << halfBits) | right;
+    }
+
+    // splitmix64 finaliser
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,158 @@
+package com.amithfernando.qrseatreservation.core.util;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+/**
+ * Signed QR payload "S1.ticketNo.eventId.mac": the MAC is HMAC-SHA256 over "ticketNo.eventId", truncated to
+ * 64 bits and Base32 encoded. Upper case Base32 and '.' stay in the QR alphanumeric mode, so a signed ticket
+ * still fits a version 2-3 code. Verifying is one HMAC on a per-thread Mac, no I/O.
+ * Scans without the "S1." prefix are plain ticket numbers from before signing and are reported as such.
+ */
+public final class TicketPayloadCodec {
+
+    public static final String PREFIX = "S1.";
+    private static final int MAC_BYTES = 8;
+    private static final char[] BASE32 = "ABCDEFGHIJKLMNOPQRSTUVWXYZ234567".toCharArray();
+    private static final int MAX_PLAIN_LENGTH = 64;
+
+    private final String eventId;
+    private final ThreadLocal<Mac> mac;
+
+    public TicketPayloadCodec(byte[] key, String eventId) {
+        if (key == null || key.length < 16) {
+            throw new IllegalArgumentException("Ticket signing key must be at least 16 bytes");
+        }
+        if (eventId == null || eventId.isBlank() || eventId.indexOf('.') >= 0) {
+            throw new IllegalArgumentException("Event id must be set and must not contain '.'");
+        }
+        this.eventId = eventId;
+        SecretKeySpec spec = new SecretKeySpec(key.clone(), "HmacSHA256");
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance("HmacSHA256");
+                instance.init(spec);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 not available", e);
+            }
+        });
+    }
+
+    public String encode(String ticketNo) {
+        return PREFIX + ticketNo + '.' + eventId + '.' + base32(sign(ticketNo, eventId));
+    }
+
+    public Result decode(String scanned) {
+        if (scanned == null) {
+            return new Result(Outcome.MALFORMED, null);
+        }
+        String text = scanned.trim();
+        if (!text.startsWith(PREFIX)) {
+            return isPlainTicketNo(text) ? new Result(Outcome.PLAIN, text) : new Result(Outcome.MALFORMED, null);
+        }
+        // ticket numbers may carry a '.', event id and MAC never do
+        int macDot = text.lastIndexOf('.');
+        int eventDot = macDot > PREFIX.length() ? text.lastIndexOf('.', macDot - 1) : -1;
+        if (eventDot <= PREFIX.length()) {
+            return new Result(Outcome.MALFORMED, null);
+        }
+        String ticketNo = text.substring(PREFIX.length(), eventDot);
+        String scannedEvent = text.substring(eventDot + 1, macDot);
+        byte[] scannedMac = fromBase32(text.substring(macDot + 1));
+        if (scannedMac == null) {
+            return new Result(Outcome.MALFORMED, null);
+        }
+        if (!MessageDigest.isEqual(scannedMac, sign(ticketNo, scannedEvent))) {
+            return new Result(Outcome.BAD_SIGNATURE, null);
+        }
+        // signed with this key but for another event
+        if (!scannedEvent.equals(eventId)) {
+            return new Result(Outcome.OTHER_EVENT, null);
+        }
+        return new Result(Outcome.SIGNED, ticketNo);
+    }
+
+    private byte[] sign(String ticketNo, String event) {
+        Mac instance = mac.get();
+        instance.update(ticketNo.getBytes(StandardCharsets.UTF_8));
+        instance.update((byte) '.');
+        return Arrays.copyOf(instance.doFinal(event.getBytes(StandardCharsets.UTF_8)), MAC_BYTES);
+    }
+
+    // what a ticket number of any past prefix and width looks like; URLs and other foreign codes do not
+    private static boolean isPlainTicketNo(String text) {
+        if (text.isEmpty() || text.length() > MAX_PLAIN_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (!(Character.isLetterOrDigit(c) || c == '-' || c == '_')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // unpadded RFC 4648 Base32
+    private static String base32(byte[] data) {
+        StringBuilder out = new StringBuilder((data.length * 8 + 4) / 5);
+        int buffer = 0;
+        int bits = 0;
+        for (byte b : data) {
+            buffer = (buffer << 8) | (b & 0xFF);
+            bits += 8;
+            while (bits >= 5) {
+                out.append(BASE32[(buffer >>> (bits - 5)) & 31]);
+                bits -= 5;
+            }
+        }
+        if (bits > 0) {
+            out.append(BASE32[(buffer << (5 - bits)) & 31]);
+        }
+        return out.toString();
+    }
+
+    private static byte[] fromBase32(String text) {
+        if (text.length() != (MAC_BYTES * 8 + 4) / 5) {
+            return null;
+        }
+        byte[] out = new byte[MAC_BYTES];
+        int buffer = 0;
+        int bits = 0;
+        int index = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int value = c >= 'A' && c <= 'Z' ? c - 'A' : c >= '2' && c <= '7' ? c - '2' + 26 : -1;
+            if (value < 0) {
+                return null;
+            }
+            buffer = (buffer << 5) | value;
+            bits += 5;
+            if (bits >= 8) {
+                out[index++] = (byte) (buffer >>> (bits - 8));
+                bits -= 8;
+            }
+        }
+        // the padding bit of the last character must be zero, one MAC has one spelling
+        return (buffer & ((1 << bits) - 1)) == 0 ? out : null;
+    }
+
+    public enum Outcome {
+        // valid signature for this event
+        SIGNED,
+        // an unsigned ticket number
+        PLAIN,
+        BAD_SIGNATURE,
+        OTHER_EVENT,
+        MALFORMED
+    }
+
+    // ticketNo is set for SIGNED and PLAIN only
+    public record Result(Outcome outcome, String ticketNo) {
+    }
+}
@@ -0,0 +1,37 @@
+package com.amithfernando.qrseatreservation.core.util;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Decoded ticket base image plus QR/text layout for one settings version.
+ * Immutable: renders draw onto a copy of the raster, so a template can be shared by concurrent renderers.
+ */
+public final class TicketTemplate {
+
+    private final long version;
+    private final BufferedImage baseImage;
+    private final QrTicketGenerator generator;
+
+    public TicketTemplate(long version, BufferedImage baseImage, int fontSize, int qrX, int qrY, int textX, int textY) {
+        this.version = version;
+        this.baseImage = baseImage;
+        this.generator = new QrTicketGenerator(baseImage, fontSize, qrX, qrY, textX, textY);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public BufferedImage render(String ticketNo) {
+        return generator.generateTicketImage(ticketNo);
+    }
+
+    public BufferedImage render(String ticketNo, String qrText) {
+        return generator.generateTicketImage(ticketNo, qrText);
+    }
+
+    // Same decoded image with a different layout, used by the settings preview
+    public TicketTemplate withLayout(int fontSize, int qrX, int qrY, int textX, int textY) {
+        return new TicketTemplate(version, baseImage, fontSize, qrX, qrY, textX, textY);
+    }
+}
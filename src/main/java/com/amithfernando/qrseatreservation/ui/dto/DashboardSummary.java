@@ -0,0 +1,17 @@
+package com.amithfernando.qrseatreservation.ui.dto;
+
+import lombok.Value;
+
+// Immutable, one instance is shared by every view until the dashboard cache expires
+@Value
+public class DashboardSummary {
+
+    long reservations;
+    long tables;
+    long sellers;
+    long availableSeats;
+    long reservedSeats;
+    long checkedInSeats;
+    long unavailableSeats;
+
+}
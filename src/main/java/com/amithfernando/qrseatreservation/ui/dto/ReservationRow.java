@@ -0,0 +1,22 @@
+package com.amithfernando.qrseatreservation.ui.dto;
+
+import com.amithfernando.qrseatreservation.core.enums.ReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One reservations grid row, selected straight from the database without loading the reservation graph
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReservationRow {
+
+    private Long id;
+    private String referenceNo;
+    private ReservationStatus reservationStatus;
+    private String sellerName;
+    private String description;
+    private String tableName;
+    private long noOfSeats;
+
+}
@@ -0,0 +1,17 @@
+package com.amithfernando.qrseatreservation.ui.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A table as offered in the reservation dialog, selected without its seats
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TableOption {
+
+    private Long id;
+    private String tableName;
+    private Integer noOfSeats;
+
+}
@@ -0,0 +1,31 @@
+package com.amithfernando.qrseatreservation.ui.rest;
+
+import com.amithfernando.qrseatreservation.core.service.CheckInMetrics;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Gate throughput as JSON, per lane: outcome totals, guests admitted in the last minute and the five minute rate.
+ */
+@RestController
+@RequestMapping("/metrics")
+public class CheckInMetricsController {
+
+    private final CheckInMetrics checkInMetrics;
+
+    public CheckInMetricsController(CheckInMetrics checkInMetrics) {
+        this.checkInMetrics = checkInMetrics;
+    }
+
+    @GetMapping("/checkin")
+    public ResponseEntity<List<CheckInMetrics.LaneStats>> checkIns() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(checkInMetrics.allStats());
+    }
+}
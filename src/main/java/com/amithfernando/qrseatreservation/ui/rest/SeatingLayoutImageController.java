@@ -0,0 +1,53 @@
+package com.amithfernando.qrseatreservation.ui.rest;
+
+import com.amithfernando.qrseatreservation.core.service.SeatingLayoutImageService;
+import com.amithfernando.qrseatreservation.core.service.SeatingLayoutImageService.Format;
+import com.amithfernando.qrseatreservation.core.service.SeatingLayoutImageService.LayoutImage;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Seating layout images for external displays, which poll with If-None-Match and get a 304 until seats change.
+ */
+@RestController
+@RequestMapping("/layout")
+public class SeatingLayoutImageController {
+
+    private final SeatingLayoutImageService seatingLayoutImageService;
+
+    public SeatingLayoutImageController(SeatingLayoutImageService seatingLayoutImageService) {
+        this.seatingLayoutImageService = seatingLayoutImageService;
+    }
+
+    @GetMapping("/seating.png")
+    public ResponseEntity<byte[]> png(WebRequest request) {
+        return image(Format.PNG, request);
+    }
+
+    @GetMapping("/seating.svg")
+    public ResponseEntity<byte[]> svg(WebRequest request) {
+        return image(Format.SVG, request);
+    }
+
+    private ResponseEntity<byte[]> image(Format format, WebRequest request) {
+        // answered from the version alone, an unchanged layout is neither rendered nor sent
+        if (request.checkNotModified(etag(seatingLayoutImageService.currentVersion()))) {
+            return null;
+        }
+        LayoutImage image = seatingLayoutImageService.getImage(format);
+        return ResponseEntity.ok()
+                .eTag(etag(image.version()))
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .body(image.content());
+    }
+
+    private static String etag(String version) {
+        return "\"" + version + "\"";
+    }
+}
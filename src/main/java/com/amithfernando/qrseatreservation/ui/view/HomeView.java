@@ -1,9 +1,9 @@
 package com.amithfernando.qrseatreservation.ui.view;
 
-import com.amithfernando.qrseatreservation.core.model.ReservationDetail;
+import com.amithfernando.qrseatreservation.core.service.DashboardService;
 import com.amithfernando.qrseatreservation.core.service.ReservationService;
-import com.amithfernando.qrseatreservation.core.service.SellerDetailService;
-import com.amithfernando.qrseatreservation.core.service.TableDetailService;
+import com.amithfernando.qrseatreservation.ui.dto.DashboardSummary;
+import com.amithfernando.qrseatreservation.ui.dto.ReservationRow;
 import com.amithfernando.qrseatreservation.ui.view.layout.MainLayout;
 import com.amithfernando.qrseatreservation.ui.view.layout.PageLayout;
 import com.vaadin.flow.component.button.Button;
@@ -17,11 +17,8 @@ import com.vaadin.flow.component.orderedlayout.FlexComponent;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
-
-import java.util.Comparator;
-import java.util.List;
-import com.amithfernando.qrseatreservation.core.enums.SeatStatus;
 import jakarta.annotation.security.RolesAllowed;
+import org.springframework.data.domain.Sort;
 
 @Route(value="/", layout = MainLayout.class)
 @RolesAllowed({"ADMIN","ENTRANCE"})
@@ -29,28 +26,26 @@ import jakarta.annotation.security.RolesAllowed;
 public class HomeView extends PageLayout {
 
     private final ReservationService reservationService;
-    private final TableDetailService tableDetailService;
-    private final SellerDetailService sellerDetailService;
+    private final DashboardService dashboardService;
 
     public HomeView(ReservationService reservationService,
-                    TableDetailService tableDetailService,
-                    SellerDetailService sellerDetailService) {
+                    DashboardService dashboardService) {
         super(VaadinIcon.HOME,"Home");
         this.reservationService = reservationService;
-        this.tableDetailService = tableDetailService;
-        this.sellerDetailService = sellerDetailService;
+        this.dashboardService = dashboardService;
 
         addContent();
     }
 
     private void addContent() {
-        // Stats cards
+        // Stats cards, all counts come from one cached summary
+        DashboardSummary summary = dashboardService.getSummary();
         Div reservationsCard = statCard(VaadinIcon.CALENDAR, "Reservations",
-                String.valueOf(reservationService.getAllReservations().size()));
+                String.valueOf(summary.getReservations()));
         Div tablesCard = statCard(VaadinIcon.TABLE, "Tables",
-                String.valueOf(tableDetailService.getAllTables().size()));
+                String.valueOf(summary.getTables()));
         Div sellersCard = statCard(VaadinIcon.USERS, "Sellers",
-                String.valueOf(sellerDetailService.getAllSellers().size()));
+                String.valueOf(summary.getSellers()));
 
         HorizontalLayout statsRow = new HorizontalLayout(reservationsCard, tablesCard, sellersCard);
         statsRow.setWidthFull();
@@ -58,24 +53,9 @@ public class HomeView extends PageLayout {
         statsRow.setJustifyContentMode(FlexComponent.JustifyContentMode.BETWEEN);
 
         // Seat summary cards (Available, Reserved, Checked-in)
-        long availableSeats = tableDetailService.getAllTables().stream()
-                .flatMap(t -> t.getSeatDetails().stream())
-                .filter(sd -> sd.getSeatStatus() == SeatStatus.AVAILABLE)
-                .count();
-
-        long reservedSeats = tableDetailService.getAllTables().stream()
-                .flatMap(t -> t.getSeatDetails().stream())
-                .filter(sd -> sd.getSeatStatus() == SeatStatus.RESERVED)
-                .count();
-
-        long checkedInSeats = tableDetailService.getAllTables().stream()
-                .flatMap(t -> t.getSeatDetails().stream())
-                .filter(sd -> sd.getSeatStatus() == SeatStatus.CHECKED_IN)
-                .count();
-
-        Div availableCard = statCard(VaadinIcon.CHECK_CIRCLE, "Available seats", String.valueOf(availableSeats));
-        Div reservedCard = statCard(VaadinIcon.BOOKMARK, "Reserved seats", String.valueOf(reservedSeats));
-        Div checkedInCard = statCard(VaadinIcon.CHECK_SQUARE, "Checked-in seats", String.valueOf(checkedInSeats));
+        Div availableCard = statCard(VaadinIcon.CHECK_CIRCLE, "Available seats", String.valueOf(summary.getAvailableSeats()));
+        Div reservedCard = statCard(VaadinIcon.BOOKMARK, "Reserved seats", String.valueOf(summary.getReservedSeats()));
+        Div checkedInCard = statCard(VaadinIcon.CHECK_SQUARE, "Checked-in seats", String.valueOf(summary.getCheckedInSeats()));
 
         HorizontalLayout seatStatsRow = new HorizontalLayout(availableCard, reservedCard, checkedInCard);
         seatStatsRow.setWidthFull();
@@ -99,26 +79,19 @@ public class HomeView extends PageLayout {
         quickActions.getStyle().set("margin-top", "var(--lumo-space-m)");
         quickActions.getStyle().set("margin-bottom", "var(--lumo-space-m)");
 
-        // Recent reservations
-        Grid<ReservationDetail> recentGrid = new Grid<>(ReservationDetail.class, false);
-        recentGrid.addColumn(ReservationDetail::getReferenceNo).setHeader("Reference #").setAutoWidth(true);
-        recentGrid.addColumn(ReservationDetail::getReservationStatus).setHeader("Status").setAutoWidth(true);
-        recentGrid.addColumn(r -> r.getSellerDetail() == null ? "" : r.getSellerDetail().getName())
+        // Recent reservations, the newest 10 rows straight from the paged grid query
+        Grid<ReservationRow> recentGrid = new Grid<>(ReservationRow.class, false);
+        recentGrid.addColumn(ReservationRow::getReferenceNo).setHeader("Reference #").setAutoWidth(true);
+        recentGrid.addColumn(ReservationRow::getReservationStatus).setHeader("Status").setAutoWidth(true);
+        recentGrid.addColumn(r -> r.getSellerName() == null ? "" : r.getSellerName())
                 .setHeader("Seller").setAutoWidth(true);
-        recentGrid.addColumn(r -> {
-            if (r.getSeatReservations() == null) return "0";
-            return String.valueOf(r.getSeatReservations().size());
-        }).setHeader("# Seats").setAutoWidth(true);
-        recentGrid.addColumn(ReservationDetail::getDescription).setHeader("Description").setFlexGrow(1);
+        recentGrid.addColumn(ReservationRow::getNoOfSeats).setHeader("# Seats").setAutoWidth(true);
+        recentGrid.addColumn(ReservationRow::getDescription).setHeader("Description").setFlexGrow(1);
         recentGrid.getElement().getThemeList().add("row-stripes");
         recentGrid.setWidthFull();
         recentGrid.setHeight("40vh");
 
-        List<ReservationDetail> latest = reservationService.getAllReservations().stream()
-                .sorted(Comparator.comparing(ReservationDetail::getId).reversed())
-                .limit(10)
-                .toList();
-        recentGrid.setItems(latest);
+        recentGrid.setItems(reservationService.findReservationRows(null, 0, 10, Sort.unsorted()));
 
         // Use the new content holder
         addToContent(statsRow, seatStatsRow, quickActions, recentGrid);
@@ -1,13 +1,18 @@
 package com.amithfernando.qrseatreservation.ui.view;
 
+import com.amithfernando.qrseatreservation.core.exception.SeatConflictException;
 import com.amithfernando.qrseatreservation.core.model.ReservationDetail;
+import com.amithfernando.qrseatreservation.core.enums.SeatStatus;
 import com.amithfernando.qrseatreservation.core.model.SeatDetail;
 import com.amithfernando.qrseatreservation.core.model.SeatReservation;
 import com.amithfernando.qrseatreservation.core.model.SellerDetail;
-import com.amithfernando.qrseatreservation.core.model.TableDetail;
 import com.amithfernando.qrseatreservation.core.service.ReservationService;
+import com.amithfernando.qrseatreservation.core.service.SeatHoldRegistry;
+import com.amithfernando.qrseatreservation.core.service.SeatStateIndex;
 import com.amithfernando.qrseatreservation.core.service.SellerDetailService;
 import com.amithfernando.qrseatreservation.core.service.TableDetailService;
+import com.amithfernando.qrseatreservation.ui.dto.ReservationRow;
+import com.amithfernando.qrseatreservation.ui.dto.TableOption;
 import com.amithfernando.qrseatreservation.ui.view.layout.MainLayout;
 import com.amithfernando.qrseatreservation.ui.view.layout.PageLayout;
 import com.vaadin.flow.component.button.Button;
@@ -23,9 +28,11 @@ import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.select.Select;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.component.textfield.IntegerField;
+import com.vaadin.flow.data.value.ValueChangeMode;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.server.StreamResource;
+import com.vaadin.flow.spring.data.VaadinSpringDataHelpers;
 import com.vaadin.flow.component.html.Anchor;
 import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.data.renderer.ComponentRenderer;
@@ -35,6 +42,7 @@ import com.amithfernando.qrseatreservation.core.enums.TicketType;
 import java.util.Set;
 import java.util.HashSet;
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 import com.amithfernando.qrseatreservation.core.enums.ReservationStatus;
 import jakarta.annotation.security.RolesAllowed;
@@ -47,6 +55,10 @@ public class ReservationManageView extends PageLayout {
     private final ReservationService reservationService;
     private final SellerDetailService sellerDetailService;
     private final TableDetailService tableDetailService;
+    private final SeatHoldRegistry seatHoldRegistry;
+    private final SeatStateIndex seatStateIndex;
+    // one holder per view instance, so two tabs of the same session do not share holds
+    private final String holderId = UUID.randomUUID().toString();
 
     // Dialog + trigger
     private final Dialog reservationDialog = new Dialog();
@@ -54,7 +66,7 @@ public class ReservationManageView extends PageLayout {
     // Toolbar search
     private final TextField searchField = new TextField();
     // Form fields (used inside dialog)
-    private final Select<TableDetail> tableSelect = new Select<>();
+    private final Select<TableOption> tableSelect = new Select<>();
     private final MultiSelectComboBox<SeatDetail> seatSelect = new MultiSelectComboBox<>();
     private final TextField noOfSelectedSeats = new TextField("No. of selected seats");
     private final Select<SellerDetail> sellerSelect = new Select<>();
@@ -66,7 +78,7 @@ public class ReservationManageView extends PageLayout {
     private final Button cancelBtn = new Button("Cancel");
 
     // Grid
-    private final Grid<ReservationDetail> grid = new Grid<>(ReservationDetail.class, false);
+    private final Grid<ReservationRow> grid = new Grid<>(ReservationRow.class, false);
 
     // View dialog for row details
     private final Dialog viewDialog = new Dialog();
@@ -78,11 +90,15 @@ public class ReservationManageView extends PageLayout {
 
     public ReservationManageView(ReservationService reservationService,
                                  SellerDetailService sellerDetailService,
-                                 TableDetailService tableDetailService) {
+                                 TableDetailService tableDetailService,
+                                 SeatHoldRegistry seatHoldRegistry,
+                                 SeatStateIndex seatStateIndex) {
         super(VaadinIcon.CALENDAR,"Create Reservation");
         this.reservationService = reservationService;
         this.sellerDetailService = sellerDetailService;
         this.tableDetailService = tableDetailService;
+        this.seatHoldRegistry = seatHoldRegistry;
+        this.seatStateIndex = seatStateIndex;
 
         setSizeFull();
         buildToolbar();
@@ -90,6 +106,7 @@ public class ReservationManageView extends PageLayout {
         buildGrid();
         buildViewDialog();
         loadData();
+        addDetachListener(e -> seatHoldRegistry.releaseAll(holderId));
     }
 
     private void buildToolbar() {
@@ -97,7 +114,7 @@ public class ReservationManageView extends PageLayout {
         newReservationBtn.addClickListener(e -> {
             clearForm();
             // Ensure choices are fresh before opening
-            tableSelect.setItems(tableDetailService.getAllTables());
+            tableSelect.setItems(tableDetailService.getTableOptions());
             sellerSelect.setItems(sellerDetailService.getAllSellers());
             reservationDialog.open();
         });
@@ -106,9 +123,19 @@ public class ReservationManageView extends PageLayout {
         searchField.setPlaceholder("Search reservations...");
         searchField.setClearButtonVisible(true);
         searchField.setWidth("280px");
-        searchField.addValueChangeListener(e -> applyFilter(e.getValue()));
-
-        HorizontalLayout toolbar = new HorizontalLayout(newReservationBtn, searchField);
+        // filtering runs in the database, so wait for a pause in typing instead of querying per keystroke
+        searchField.setValueChangeMode(ValueChangeMode.LAZY);
+        searchField.addValueChangeListener(e -> refreshGrid());
+
+        // Whole-event bundle, streamed from the database in chunks when clicked
+        StreamResource allTickets = new StreamResource("all-tickets.zip",
+                (out, session) -> reservationService.writeEventTicketZip(out));
+        allTickets.setContentType("application/zip");
+        Anchor allTicketsLink = new Anchor(allTickets, "");
+        allTicketsLink.getElement().setAttribute("download", true);
+        allTicketsLink.add(new Button("Download All Tickets", VaadinIcon.DOWNLOAD.create()));
+
+        HorizontalLayout toolbar = new HorizontalLayout(newReservationBtn, searchField, allTicketsLink);
         toolbar.setWidthFull();
         toolbar.setSpacing(true);
         toolbar.setAlignItems(FlexComponent.Alignment.END);
@@ -123,30 +150,19 @@ public class ReservationManageView extends PageLayout {
         reservationDialog.setDraggable(true);
         reservationDialog.setResizable(true);
         reservationDialog.setWidth("720px");
+        reservationDialog.addOpenedChangeListener(e -> {
+            if (!e.isOpened()) {
+                seatHoldRegistry.releaseAll(holderId);
+            }
+        });
 
         // Table
         tableSelect.setLabel("Table");
-        tableSelect.setItemLabelGenerator(TableDetail::getTableNoWithStatus);
+        tableSelect.setItemLabelGenerator(t -> t.getTableName() + " - Available Seats: "
+                + seatStateIndex.count(t.getId(), SeatStatus.AVAILABLE) + " / " + t.getNoOfSeats());
         tableSelect.setRequiredIndicatorVisible(true);
         tableSelect.setHelperText("Choose a table to see its available seats.");
-        tableSelect.addValueChangeListener(e -> {
-            TableDetail table = e.getValue();
-            if (table == null) {
-                seatSelect.clear();
-                seatSelect.setItems(List.of());
-                noOfSelectedSeats.clear();
-                return;
-            }
-            TableDetail fresh = tableDetailService.getAllTables().stream()
-                    .filter(t -> t.getId().equals(table.getId()))
-                    .findFirst()
-                    .orElse(table);
-            List<SeatDetail> available = fresh.getSeatDetails().stream()
-                    .filter(SeatDetail::isAvailable)
-                    .collect(Collectors.toList());
-            seatSelect.setItems(available);
-            seatSelect.clear();
-        });
+        tableSelect.addValueChangeListener(e -> showAvailableSeats(e.getValue()));
 
         // Seats
         seatSelect.setLabel("Seats");
@@ -154,6 +170,21 @@ public class ReservationManageView extends PageLayout {
         seatSelect.setClearButtonVisible(true);
         seatSelect.setPlaceholder("Select one or more seats");
         seatSelect.addSelectionListener(e ->{
+            seatHoldRegistry.release(holderId, e.getRemovedSelection().stream().map(SeatDetail::getId).toList());
+            List<Long> heldByOthers = seatHoldRegistry.hold(holderId,
+                    e.getAddedSelection().stream().map(SeatDetail::getId).toList());
+            if (!heldByOthers.isEmpty()) {
+                // another seller picked these first, take them out of the selection and the list
+                Notification n = Notification.show("Seats on hold by another seller. Please pick other seats.",
+                        4000, Notification.Position.MIDDLE);
+                n.addThemeVariants(NotificationVariant.LUMO_WARNING);
+                // only those seats: no reload, the rest of the selection and its holds stay as they are
+                List<SeatDetail> taken = e.getAddedSelection().stream()
+                        .filter(sd -> heldByOthers.contains(sd.getId()))
+                        .toList();
+                seatSelect.deselect(taken);
+                seatSelect.getListDataView().removeItems(taken);
+            }
             noOfSelectedSeats.setValue(String.valueOf(seatSelect.getSelectedItems().size()));
         });
 
@@ -223,10 +254,10 @@ public class ReservationManageView extends PageLayout {
     }
 
     private void buildGrid() {
-        grid.addColumn(ReservationDetail::getReferenceNo)
+        grid.addColumn(ReservationRow::getReferenceNo)
                 .setHeader("Reference #")
                 .setAutoWidth(true)
-                .setSortable(true);
+                .setSortProperty("referenceNo");
 
         // Status with badge look
         grid.addColumn(new ComponentRenderer<>(rd -> {
@@ -238,32 +269,32 @@ public class ReservationManageView extends PageLayout {
                 badge.getElement().getThemeList().add("contrast");
             }
             return badge;
-        })).setHeader("Status").setAutoWidth(true).setSortable(true);
+        })).setHeader("Status").setAutoWidth(true).setSortProperty("reservationStatus");
 
-        grid.addColumn(r -> r.getSellerDetail() == null ? "" : r.getSellerDetail().getName())
+        grid.addColumn(r -> r.getSellerName() == null ? "" : r.getSellerName())
                 .setHeader("Seller")
                 .setAutoWidth(true)
-                .setSortable(true);
+                .setSortProperty("sellerName");
 
-        grid.addColumn(ReservationDetail::getDescription)
+        grid.addColumn(ReservationRow::getDescription)
                 .setHeader("Description")
-                .setSortable(true)
+                .setSortProperty("description")
                 .setFlexGrow(2);
 
-        grid.addColumn(r -> {
-            if (r.getSeatReservations() == null || r.getSeatReservations().isEmpty()) return "";
-            return r.getSeatReservations().stream()
-                    .findFirst()
-                    .map(sr -> sr.getSeatDetail().getTableDetail().getTableName())
-                    .orElse("");
-        }).setHeader("Table")
+        grid.addColumn(r -> r.getTableName() == null ? "" : r.getTableName())
+                .setHeader("Table")
                 .setAutoWidth(true);
 
-        grid.addColumn(r ->
-                r.getSeatReservations() == null ? "0" : String.valueOf(r.getSeatReservations().size()))
+        grid.addColumn(ReservationRow::getNoOfSeats)
                 .setHeader("No. of Seats")
                 .setAutoWidth(true);
 
+        // Rows are fetched page by page as the grid scrolls; only the visible pages are held in memory
+        grid.setItems(
+                query -> reservationService.findReservationRows(searchField.getValue(), query.getOffset(),
+                        query.getLimit(), VaadinSpringDataHelpers.toSpringDataSort(query)).stream(),
+                query -> reservationService.countReservationRows(searchField.getValue()));
+
         grid.setWidthFull();
         grid.setHeight("60vh");
 
@@ -274,7 +305,9 @@ public class ReservationManageView extends PageLayout {
 
         // Open details dialog on row selection
         grid.addSelectionListener(e -> {
-            e.getFirstSelectedItem().ifPresent(this::openReservationDetails);
+            e.getFirstSelectedItem()
+                    .flatMap(row -> reservationService.getReservationWithDetails(row.getId()))
+                    .ifPresent(this::openReservationDetails);
             grid.deselectAll();
         });
 
@@ -284,34 +317,33 @@ public class ReservationManageView extends PageLayout {
     private void loadData() {
         // Preload for first dialog open; also refreshed on open
         sellerSelect.setItems(sellerDetailService.getAllSellers());
-        tableSelect.setItems(tableDetailService.getAllTables());
+        tableSelect.setItems(tableDetailService.getTableOptions());
         refreshGrid();
     }
 
     private void refreshGrid() {
-        grid.setItems(reservationService.getAllReservations());
-        // Optionally re-apply current filter
-        applyFilter(searchField.getValue());
+        grid.getDataProvider().refreshAll();
     }
 
-    private void applyFilter(String filterText) {
-        String ft = filterText == null ? "" : filterText.trim().toLowerCase();
-        grid.getListDataView().removeFilters();
-        if (!ft.isEmpty()) {
-            grid.getListDataView().addFilter(r -> {
-                String ref = r.getReferenceNo() == null ? "" : r.getReferenceNo().toLowerCase();
-                String seller = r.getSellerDetail() == null || r.getSellerDetail().getName() == null ? "" : r.getSellerDetail().getName().toLowerCase();
-                String desc = r.getDescription() == null ? "" : r.getDescription().toLowerCase();
-                String status = r.getReservationStatus() == null ? "" : r.getReservationStatus().name().toLowerCase();
-                return ref.contains(ft) || seller.contains(ft) || desc.contains(ft) || status.contains(ft);
-            });
+    private void showAvailableSeats(TableOption table) {
+        if (table == null) {
+            seatSelect.clear();
+            seatSelect.setItems(List.of());
+            noOfSelectedSeats.clear();
+            return;
         }
+        // only this table's free seats are loaded, no other table is touched
+        List<SeatDetail> available = tableDetailService.getFreeSeats(table.getId()).stream()
+                .filter(sd -> !seatHoldRegistry.isHeldByOther(sd.getId(), holderId))
+                .collect(Collectors.toList());
+        seatSelect.setItems(available);
+        seatSelect.clear();
     }
 
     private void onSave() {
         if (!validateForm()) return;
 
-        TableDetail table = tableSelect.getValue();
+        TableOption table = tableSelect.getValue();
         Set<SeatDetail> seats = new HashSet<>(seatSelect.getSelectedItems());
         SellerDetail seller = sellerSelect.getValue();
         String desc = description.getValue();
@@ -356,13 +388,19 @@ public class ReservationManageView extends PageLayout {
                     .description(desc)
                     .build();
 
-            reservationService.saveReservation(reservation);
+            reservationService.saveReservation(reservation, holderId);
             Notification.show("Reservation created", 2500, Notification.Position.BOTTOM_START)
                     .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
             reservationDialog.close();
             clearForm();
             refreshGrid();
 
+        } catch (SeatConflictException ex) {
+            // someone else booked first: keep the dialog open with the seat list refreshed
+            Notification n = Notification.show(ex.getMessage() + ". Please pick other seats.",
+                    5000, Notification.Position.MIDDLE);
+            n.addThemeVariants(NotificationVariant.LUMO_WARNING);
+            showAvailableSeats(table);
         } catch (Exception ex) {
             Notification n = Notification.show("Failed to create reservation: " + ex.getMessage(),
                     3500, Notification.Position.MIDDLE);
@@ -443,34 +481,21 @@ public class ReservationManageView extends PageLayout {
         viewDialog.open();
     }
 
-    // add: prepare stream resource for tickets zip using ReservationService (which uses TicketService)
+    // The ZIP is written straight into the response when the download starts, nothing is prepared up front
     private void updateDownloadResource() {
         ReservationDetail current = reservationViewDialogComponent.getReservationDetail();
-        if (current == null) {
+        if (current == null || current.getSeatReservations() == null || current.getSeatReservations().isEmpty()) {
             downloadLink.setHref("");
             downloadBtn.setEnabled(false);
             return;
         }
-        try {
-            byte[] zipBytes = reservationService.getTicketImageZip(current);
-            if (zipBytes == null || zipBytes.length == 0) {
-                downloadLink.setHref("");
-                downloadBtn.setEnabled(false);
-                return;
-            }
-            StreamResource resource = new StreamResource(
-                    current.getTicketFileName() + ".zip",
-                    () -> new java.io.ByteArrayInputStream(zipBytes)
-            );
-            downloadLink.setHref(resource);
-            downloadBtn.setEnabled(true);
-        } catch (Exception ex) {
-            downloadLink.setHref("");
-            downloadBtn.setEnabled(false);
-            Notification n = Notification.show("Failed to prepare tickets: " + ex.getMessage(),
-                    3500, Notification.Position.MIDDLE);
-            n.addThemeVariants(NotificationVariant.LUMO_ERROR);
-        }
+        StreamResource resource = new StreamResource(
+                current.getTicketFileName() + ".zip",
+                (out, session) -> reservationService.writeTicketZip(current, out)
+        );
+        resource.setContentType("application/zip");
+        downloadLink.setHref(resource);
+        downloadBtn.setEnabled(true);
     }
 
     private void confirmAndDelete() {
@@ -1,15 +1,20 @@
 package com.amithfernando.qrseatreservation.ui.view;
 
-import com.amithfernando.qrseatreservation.core.model.Setting;
 import com.amithfernando.qrseatreservation.core.model.TableDetail;
+import com.amithfernando.qrseatreservation.core.service.SeatHoldRegistry;
+import com.amithfernando.qrseatreservation.core.service.SeatStatusBroadcaster;
+import com.amithfernando.qrseatreservation.core.service.SeatingLayoutImageService;
 import com.amithfernando.qrseatreservation.core.service.SettingService;
+import com.amithfernando.qrseatreservation.core.service.SettingSnapshot;
 import com.amithfernando.qrseatreservation.core.service.TableDetailService;
 import com.amithfernando.qrseatreservation.ui.view.component.SeatCanvas;
 import com.amithfernando.qrseatreservation.ui.view.layout.MainLayout;
 import com.amithfernando.qrseatreservation.ui.view.layout.PageLayout;
+import com.vaadin.flow.component.html.Anchor;
 import com.vaadin.flow.component.icon.VaadinIcon;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.server.StreamResource;
 import jakarta.annotation.security.RolesAllowed;
 import lombok.extern.slf4j.Slf4j;
 import com.vaadin.flow.component.button.Button;
@@ -26,7 +31,9 @@ public class SeatingLayoutView extends PageLayout {
     private final TableDetailService tableDetailService;
     private final SettingService settingService;
 
-    public SeatingLayoutView(TableDetailService tableDetailService, SettingService settingService) {
+    public SeatingLayoutView(TableDetailService tableDetailService, SettingService settingService,
+                             SeatHoldRegistry seatHoldRegistry, SeatStatusBroadcaster seatStatusBroadcaster,
+                             SeatingLayoutImageService seatingLayoutImageService) {
         super(VaadinIcon.LAYOUT,"Seating Layout");
         this.tableDetailService = tableDetailService;
         this.settingService = settingService;
@@ -35,46 +42,29 @@ public class SeatingLayoutView extends PageLayout {
         // Generate seats
         List<TableDetail> allTables = tableDetailService.getAllTables();
 
-        Setting setting = settingService.getSetting();
+        SettingSnapshot setting = settingService.getSnapshot();
         // Canvas with tables + seats
-        SeatCanvas canvas = new SeatCanvas(allTables,setting.getTableSize(),setting.getSeatSize(),setting.getNoOfColumns());
+        SeatCanvas canvas = new SeatCanvas(allTables,setting.getTableSize(),setting.getSeatSize(),setting.getNoOfColumns(),
+                seatHoldRegistry.heldSeatIds());
+        // bookings and check-ins made elsewhere recolor their seats while the layout is open
+        canvas.setStatusUpdates(seatStatusBroadcaster);
 
-        // Download button for the canvas
-        Button downloadBtn = new Button("Download Layout", VaadinIcon.DOWNLOAD.create());
-        downloadBtn.addClickListener(e ->
-                getUI().ifPresent(ui ->
-                        ui.getPage().executeJs("""
-                            const canvas = $0;
-                            try {
-                              // Offscreen canvas with white background
-                              const exportCanvas = document.createElement('canvas');
-                              exportCanvas.width = canvas.width;
-                              exportCanvas.height = canvas.height;
-                              const exctx = exportCanvas.getContext('2d');
-                              exctx.fillStyle = '#ffffff';
-                              exctx.fillRect(0, 0, exportCanvas.width, exportCanvas.height);
-                              exctx.drawImage(canvas, 0, 0);
-
-                              const dataUrl = exportCanvas.toDataURL('image/png');
-
-                              const pad = n => String(n).padStart(2, '0');
-                              const d = new Date();
-                              const ts = `${d.getFullYear()}${pad(d.getMonth()+1)}${pad(d.getDate())}-${pad(d.getHours())}${pad(d.getMinutes())}${pad(d.getSeconds())}`;
-
-                              const a = document.createElement('a');
-                              a.href = dataUrl;
-                              a.download = `seating-layout-${ts}.png`;
-                              document.body.appendChild(a);
-                              a.click();
-                              a.remove();
-                            } catch (err) {
-                              console.error('Failed to download canvas', err);
-                            }
-                        """, canvas.getElement())
-                )
-        );
+        // Full-venue images rendered on the server, whatever part of the layout the window shows
+        addToContent(new HorizontalLayout(
+                layoutDownloadLink(seatingLayoutImageService, SeatingLayoutImageService.Format.PNG, "Download Layout"),
+                layoutDownloadLink(seatingLayoutImageService, SeatingLayoutImageService.Format.SVG, "Download SVG")), canvas);
+    }
 
-        addToContent(new HorizontalLayout(downloadBtn), canvas );
+    // The image comes from the service cache, rendered only when seats or tables changed since the last download
+    private Anchor layoutDownloadLink(SeatingLayoutImageService seatingLayoutImageService,
+                                      SeatingLayoutImageService.Format format, String label) {
+        StreamResource resource = new StreamResource("seating-layout." + format.getExtension(),
+                (out, session) -> out.write(seatingLayoutImageService.getImage(format).content()));
+        resource.setContentType(format.getContentType());
+        Anchor link = new Anchor(resource, "");
+        link.getElement().setAttribute("download", true);
+        link.add(new Button(label, VaadinIcon.DOWNLOAD.create()));
+        return link;
     }
 
 }
@@ -1,6 +1,7 @@
 package com.amithfernando.qrseatreservation.ui.view;
 
 import com.amithfernando.qrseatreservation.core.model.SellerDetail;
+import com.amithfernando.qrseatreservation.core.service.ReservationService;
 import com.amithfernando.qrseatreservation.core.service.SellerDetailService;
 import com.amithfernando.qrseatreservation.ui.view.layout.MainLayout;
 import com.amithfernando.qrseatreservation.ui.view.layout.PageLayout;
@@ -12,6 +13,7 @@ import com.vaadin.flow.component.formlayout.FormLayout;
 import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.grid.contextmenu.GridContextMenu;
 import com.vaadin.flow.component.grid.contextmenu.GridMenuItem;
+import com.vaadin.flow.component.html.Anchor;
 import com.vaadin.flow.component.icon.VaadinIcon;
 import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.notification.NotificationVariant;
@@ -20,6 +22,7 @@ import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.provider.ListDataProvider;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.server.StreamResource;
 import jakarta.annotation.security.RolesAllowed;
 
 import java.util.ArrayList;
@@ -52,10 +55,12 @@ public class SellerManageView extends PageLayout {
     private final Button openDialogButton = new Button("Add seller");
 
     private final SellerDetailService sellerDetailService;
+    private final ReservationService reservationService;
 
-    public SellerManageView(SellerDetailService sellerDetailService) {
+    public SellerManageView(SellerDetailService sellerDetailService, ReservationService reservationService) {
         super(VaadinIcon.USERS,"Seller Settings");
         this.sellerDetailService = sellerDetailService;
+        this.reservationService = reservationService;
         setSizeFull();
         initGrid();
         initDialog();
@@ -90,6 +95,7 @@ public class SellerManageView extends PageLayout {
         grid.addColumn(SellerDetail::getEmail).setHeader("Email").setAutoWidth(true).setSortable(true);
         grid.addColumn(SellerDetail::getPhone).setHeader("Phone Number").setAutoWidth(true).setSortable(true);
         grid.addColumn(SellerDetail::getDescription).setHeader("Description").setSortable(true).setFlexGrow(2);
+        grid.addComponentColumn(this::ticketDownloadLink).setHeader("Tickets").setAutoWidth(true).setFlexGrow(0);
         grid.setItems(dataProvider);
 
         // Visual and interaction improvements
@@ -107,6 +113,20 @@ public class SellerManageView extends PageLayout {
         contextMenu.addGridContextMenuOpenedListener(e -> deleteItem.setEnabled(e.getItem() != null));
     }
 
+    // The seller's ZIP is only built when the link is clicked, streamed from the database in chunks
+    private Anchor ticketDownloadLink(SellerDetail seller) {
+        StreamResource resource = new StreamResource(seller.getName() + "-tickets.zip",
+                (out, session) -> reservationService.writeSellerTicketZip(seller.getId(), out));
+        resource.setContentType("application/zip");
+        Anchor link = new Anchor(resource, "");
+        link.getElement().setAttribute("download", true);
+        Button button = new Button(VaadinIcon.DOWNLOAD.create());
+        button.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
+        button.setTooltipText("Download tickets");
+        link.add(button);
+        return link;
+    }
+
     private void initDialog() {
         dialog.setHeaderTitle("Add seller");
 
@@ -1,6 +1,8 @@
 package com.amithfernando.qrseatreservation.ui.view;
 
+import com.amithfernando.qrseatreservation.core.enums.SeatStatus;
 import com.amithfernando.qrseatreservation.core.model.TableDetail;
+import com.amithfernando.qrseatreservation.core.service.SeatStateIndex;
 import com.amithfernando.qrseatreservation.core.service.TableDetailService;
 import com.amithfernando.qrseatreservation.ui.view.layout.MainLayout;
 import com.amithfernando.qrseatreservation.ui.view.layout.PageLayout;
@@ -55,10 +57,12 @@ public class TableManageView extends PageLayout {
 
 
     private final TableDetailService tableDetailService;
+    private final SeatStateIndex seatStateIndex;
 
-    public TableManageView(TableDetailService tableDetailService) {
+    public TableManageView(TableDetailService tableDetailService, SeatStateIndex seatStateIndex) {
         super(VaadinIcon.TABLE,"Table Settings");
         this.tableDetailService = tableDetailService;
+        this.seatStateIndex = seatStateIndex;
         setSizeFull();
         initGrid();
         initDialog();
@@ -93,9 +97,11 @@ public class TableManageView extends PageLayout {
         grid.addColumn(TableDetail::getTableName).setHeader("Table name").setAutoWidth(true).setSortable(true).setFlexGrow(1);
         grid.addColumn(TableDetail::getDescription).setHeader("Table description").setSortable(true).setFlexGrow(2);
         grid.addColumn(TableDetail::getNoOfSeats).setHeader("Total seats").setAutoWidth(true).setSortable(true);
-        grid.addColumn(TableDetail::getAvailableSeats).setHeader("Available").setAutoWidth(true).setSortable(true);
-        grid.addColumn(TableDetail::getUnavailableSeats).setHeader("Unavailable").setAutoWidth(true).setSortable(true);
-        grid.addColumn(TableDetail::getReservedSeats).setHeader("Reserved").setAutoWidth(true).setSortable(true);
+        // seat counts from the seat state index instead of streaming every table's seats per cell
+        grid.addColumn(t -> seatStateIndex.count(t.getId(), SeatStatus.AVAILABLE)).setHeader("Available").setAutoWidth(true).setSortable(true);
+        grid.addColumn(t -> seatStateIndex.count(t.getId(), SeatStatus.UNAVAILABLE)).setHeader("Unavailable").setAutoWidth(true).setSortable(true);
+        grid.addColumn(t -> seatStateIndex.count(t.getId(), SeatStatus.RESERVED) + seatStateIndex.count(t.getId(), SeatStatus.CHECKED_IN))
+                .setHeader("Reserved").setAutoWidth(true).setSortable(true);
         grid.setItems(dataProvider);
 
         // Visual and interaction improvements
@@ -1,209 +1,172 @@
 package com.amithfernando.qrseatreservation.ui.view.component;
 
+import com.amithfernando.qrseatreservation.core.enums.SeatStatus;
 import com.amithfernando.qrseatreservation.core.model.SeatDetail;
 import com.amithfernando.qrseatreservation.core.model.TableDetail;
+import com.amithfernando.qrseatreservation.core.service.SeatStatusBroadcaster;
+import com.amithfernando.qrseatreservation.core.util.PositionHelper;
+import com.amithfernando.qrseatreservation.core.util.TablePosition;
 import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.Tag;
+import com.vaadin.flow.component.dependency.JsModule;
 import com.vaadin.flow.component.html.Div;
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import com.vaadin.flow.shared.Registration;
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
 
-import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 
+/**
+ * Seating layout drawn in the browser by seat-canvas.js. The server only sends table positions, seat numbers
+ * and one status letter per seat; seat placement around each table and all drawing happen client side.
+ * With a SeatStatusBroadcaster set, status changes arrive as pushed deltas that recolor just the changed seats.
+ * The canvas fills the space it is given; pan, zoom and level of detail are handled by the renderer.
+ */
 @Tag("canvas")
-@Slf4j
+@JsModule("./seat-canvas.js")
 public class SeatCanvas extends Div {
     private final List<TableDetail> allTables;
     private final int tableSize;
     private final int seatSize;
     private final int noOfColumns;
-
+    private final Set<Long> heldSeatIds;
+    // seat id -> position in the payload's seat order, the index the renderer knows seats by
+    private final Map<Long, Integer> seatIndex = new HashMap<>();
+    private SeatStatusBroadcaster statusUpdates;
+    private Registration statusRegistration;
 
     public SeatCanvas(List<TableDetail> allTables, int tableSize, int seatSize, int noOfColumns) {
+        this(allTables, tableSize, seatSize, noOfColumns, Set.of());
+    }
+
+    public SeatCanvas(List<TableDetail> allTables, int tableSize, int seatSize, int noOfColumns, Set<Long> heldSeatIds) {
         this.allTables = allTables;
         this.tableSize = tableSize;
         this.seatSize = seatSize;
         this.noOfColumns = noOfColumns;
+        this.heldSeatIds = heldSeatIds;
+        // the renderer sizes its drawing buffer to the element, so the element takes the rest of the page
+        setWidthFull();
+        getStyle().set("flex", "1 1 0")
+                .set("min-height", "480px")
+                .set("touch-action", "none")
+                .set("cursor", "grab");
     }
 
     @Override
     protected void onAttach(AttachEvent attachEvent) {
         super.onAttach(attachEvent);
         draw();
+        if (statusUpdates != null) {
+            UI ui = attachEvent.getUI();
+            statusRegistration = statusUpdates.register(delta -> ui.access(() -> applyDelta(delta)));
+        }
     }
 
-    public void draw() {
-        StringBuilder js = new StringBuilder("""
-            const ctx = this.getContext('2d');
-            ctx.canvas.width  = window.innerWidth;
-            ctx.canvas.height = window.innerHeight;
-            ctx.clearRect(0, 0, this.width, this.height);
-
-            // Draw Stage at the top
-            ctx.fillStyle = '#444';
-            ctx.fillRect(250, 10, 300, 40);
-            ctx.fillStyle = 'white';
-            ctx.font = '20px Arial';
-            ctx.fillText('STAGE', 380, 35);
-
-            // Legend (top-left)
-            const legend = [
-              { label: 'Available',   color: 'lightgreen' },
-              { label: 'Reserved',    color: 'red' },
-              { label: 'Checked-in',  color: 'blue' },
-              { label: 'Unavailable', color: 'lightgray' }
-            ];
-            const legendX = 20;
-            const legendY = 70;
-            const boxSize = 12;
-            const lineHeight = 20;
-
-            ctx.font = '14px Arial';
-            ctx.textBaseline = 'middle';
-            legend.forEach((item, idx) => {
-              const y = legendY + idx * lineHeight;
-              // color box
-              ctx.fillStyle = item.color;
-              ctx.fillRect(legendX, y - boxSize/2, boxSize, boxSize);
-              ctx.strokeStyle = '#333';
-              ctx.strokeRect(legendX, y - boxSize/2, boxSize, boxSize);
-              // label
-              ctx.fillStyle = '#000';
-              ctx.fillText(item.label, legendX + boxSize + 8, y);
-            });
-        """);
-
-        PositionHelper positionHelper = new PositionHelper(noOfColumns, tableSize, allTables);
-        List<TablePosition> tablePositions = positionHelper.getTablePositions();
-
-
-        for (TablePosition tablePosition : tablePositions) {
-            int cx = tablePosition.getX();
-            int cy = tablePosition.getY();
-
-            // Draw table circle
-            js.append(String.format("""
-                ctx.beginPath();
-                ctx.arc(%d, %d, %d, 0, 2 * Math.PI);
-                ctx.fillStyle = 'orange';
-                ctx.fill();
-                ctx.stroke();
-
-                // Centered table name
-                ctx.fillStyle = 'black';
-                ctx.font = '16px Arial';
-                ctx.textAlign = 'center';
-                ctx.textBaseline = 'middle';
-                ctx.fillText('%s', %d, %d);
-            """, cx, cy, tableSize/2, tablePosition.getTable().getTableName(), cx, cy));
-
-            int seatCount = tablePosition.getTable().getSeatDetails().size(); // seatCount
-            int s = 0;
-            for (SeatDetail seatDetail : tablePosition.getTable().getSeatDetails()) {
-                double angle = 2 * Math.PI * s / seatCount;
-                int sx = (int) (cx + Math.cos(angle) * ((double) tableSize /2 + 25));
-                int sy = (int) (cy + Math.sin(angle) * ((double) tableSize /2 + 25));
-
-                log.info("seatId: {}, seat: {}", seatDetail.getId(), seatDetail);
-                String color = switch (seatDetail.getSeatStatus()) {
-                    case UNAVAILABLE -> "lightgray";
-                    case RESERVED-> "red";
-                    case CHECKED_IN-> "blue";
-                    default -> "lightgreen";
-                };
-
-                js.append(String.format("""
-                    ctx.fillStyle = '%s';
-                    ctx.beginPath();
-                    ctx.arc(%d, %d, %d, 0, 2 * Math.PI);
-                    ctx.fill();
-                    ctx.stroke();
-
-                    // Seat number centered on the circle with outline for contrast
-                    ctx.font = '12px Arial';
-                    ctx.textAlign = 'center';
-                    ctx.textBaseline = 'middle';
-                    ctx.lineWidth = 3;
-                    ctx.strokeStyle = 'white';
-                    ctx.strokeText('%s', %d, %d);
-                    ctx.fillStyle = 'black';
-                    ctx.fillText('%s', %d, %d);
-                """,
-                        color, sx, sy, seatSize/2,
-                        seatDetail.getSeatNo(), sx, sy,
-                        seatDetail.getSeatNo(), sx, sy
-                ));
-
-                s++;
-            }
-
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        if (statusRegistration != null) {
+            statusRegistration.remove();
+            statusRegistration = null;
         }
-
-        getElement().executeJs(js.toString());
+        super.onDetach(detachEvent);
     }
 
-}
-
-@Slf4j
-class PositionHelper {
-
-    private final int noOfColumns;
-    private final int tableSize;
-    private final List<TableDetail> allTables;
-
-    public PositionHelper(int noOfColumns, int tableSize, List<TableDetail> allTables) {
-        this.noOfColumns = noOfColumns;
-        this.tableSize = tableSize;
-        this.allTables = allTables;
+    // needs Push, deltas are sent from the broadcaster thread
+    public void setStatusUpdates(SeatStatusBroadcaster statusUpdates) {
+        this.statusUpdates = statusUpdates;
     }
 
-    public List<TablePosition> getTablePositions() {
-        List<TablePosition> tablePositions = new ArrayList<>();
-        int spaceRatio = 2 * tableSize;
-        int currentColumn = 1;
-        int currentRow = 1;
+    public void draw() {
+        getElement().executeJs("window.SeatCanvasRenderer.draw(this, $0)", payload());
+    }
 
-        for (TableDetail table : allTables) {
-            int x = currentColumn * spaceRatio;
-            int y = currentRow * spaceRatio;
+    // Recolors the seats in delta that are on this layout
+    void applyDelta(Map<Long, SeatStatus> delta) {
+        JsonObject update = deltaPayload(delta);
+        JsonArray indexes = update.getArray("indexes");
+        if (indexes.length() > 0) {
+            getElement().executeJs("window.SeatCanvasRenderer.update(this, $0, $1)", indexes, update.getString("status"));
+        }
+    }
 
-            TablePosition tablePosition = new TablePosition(table, x, y);
-            log.info(tablePosition.toString());
-            tablePositions.add(tablePosition);
+    /*
+     * {indexes: [index, ...] into the last payload's seat order, status: one letter per index}
+     * Seats of tables added since the last payload are skipped until the next full draw.
+     */
+    JsonObject deltaPayload(Map<Long, SeatStatus> delta) {
+        JsonArray indexes = Json.createArray();
+        StringBuilder status = new StringBuilder();
+        delta.forEach((seatId, seatStatus) -> {
+            Integer index = seatIndex.get(seatId);
+            if (index != null) {
+                indexes.set(indexes.length(), index);
+                // the hold snapshot is from draw time, a seat freed since is plain available
+                status.append(statusCode(seatStatus, false));
+            }
+        });
+        JsonObject update = Json.createObject();
+        update.put("indexes", indexes);
+        update.put("status", status.toString());
+        return update;
+    }
 
-            if (currentColumn == noOfColumns) {
-                // reset column, move to the next row
-                currentColumn = 1;
-                currentRow++;
-            } else {
-                currentColumn++;
+    /*
+     * {tableSize, seatSize,
+     *  tables: [x0, y0, seatCount0, x1, y1, seatCount1, ...], tableNames: [...],
+     *  seatNos: [...] in table order, status: one letter per seat (A, R, C, U, or H for on hold; U without a status)}
+     */
+    JsonObject payload() {
+        List<TablePosition> tablePositions = new PositionHelper(noOfColumns, tableSize, allTables).getTablePositions();
+        JsonArray tables = Json.createArray();
+        JsonArray tableNames = Json.createArray();
+        JsonArray seatNos = Json.createArray();
+        StringBuilder status = new StringBuilder();
+        int t = 0;
+        int seat = 0;
+        seatIndex.clear();
+        for (TablePosition tablePosition : tablePositions) {
+            List<SeatDetail> seats = tablePosition.getTable().getSeatDetails();
+            tables.set(t * 3, tablePosition.getX());
+            tables.set(t * 3 + 1, tablePosition.getY());
+            tables.set(t * 3 + 2, seats.size());
+            tableNames.set(t, tablePosition.getTable().getTableName());
+            t++;
+            for (SeatDetail seatDetail : seats) {
+                seatIndex.put(seatDetail.getId(), seat);
+                seatNos.set(seat++, seatDetail.getSeatNo());
+                status.append(statusCode(seatDetail.getSeatStatus(), heldSeatIds.contains(seatDetail.getId())));
             }
         }
-        return tablePositions;
+        JsonObject payload = Json.createObject();
+        payload.put("tableSize", tableSize);
+        payload.put("seatSize", seatSize);
+        payload.put("tables", tables);
+        payload.put("tableNames", tableNames);
+        payload.put("seatNos", seatNos);
+        payload.put("status", status.toString());
+        return payload;
     }
 
-
-}
-
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
-class TablePosition {
-    private TableDetail table;
-    private  int x;
-    private  int y;
-
-    @Override
-    public String toString() {
-        return "TablePosition{" +
-                "table=" + table.getTableName() +
-                ", x=" + x +
-                ", y=" + y +
-                '}';
+    private char statusCode(SeatStatus seatStatus, boolean held) {
+        if (seatStatus == null) {
+            // not bookable, as SeatDetail.isAvailable() sees it
+            return 'U';
+        }
+        return switch (seatStatus) {
+            case UNAVAILABLE -> 'U';
+            case RESERVED -> 'R';
+            case CHECKED_IN -> 'C';
+            // picked in an open reservation dialog but not booked yet
+            default -> held ? 'H' : 'A';
+        };
     }
-}
 
+}
@@ -0,0 +1,50 @@
+package com.amithfernando.qrseatreservation.core.service;
+
+import com.amithfernando.qrseatreservation.core.enums.CheckInResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CheckInMetricsTest {
+
+    private final AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+    private final CheckInMetrics metrics = new CheckInMetrics(clock::get);
+
+    @Test
+    void guestsPerMinute_countsAdmittedGuestsInCompleteSeconds() {
+        // 2 guests a second for 90 seconds at gate-1, rejects do not count as throughput
+        for (int second = 0; second < 90; second++) {
+            metrics.record("gate-1", CheckInResult.CHECKED_IN);
+            metrics.record("gate-1", CheckInResult.CHECKED_IN);
+            metrics.record("gate-1", CheckInResult.ALREADY_CHECKED_IN);
+            clock.addAndGet(1000);
+        }
+        metrics.record("gate-2", CheckInResult.NOT_PAID);
+
+        CheckInMetrics.LaneStats gate1 = metrics.stats("gate-1");
+        assertThat(gate1.lastMinute()).isEqualTo(120);
+        assertThat(gate1.perMinuteFiveMin()).isEqualTo(180 / 5.0);
+        assertThat(gate1.totals()).containsEntry(CheckInResult.CHECKED_IN, 180L)
+                .containsEntry(CheckInResult.ALREADY_CHECKED_IN, 90L);
+        assertThat(metrics.allStats()).extracting(CheckInMetrics.LaneStats::lane).containsExactly("gate-1", "gate-2");
+        assertThat(metrics.stats("gate-3").lastMinute()).isZero();
+    }
+
+    @Test
+    void secondsOlderThanFiveMinutes_dropOut() {
+        metrics.record("gate-1", CheckInResult.CHECKED_IN);
+        clock.addAndGet(61_000);
+        assertThat(metrics.stats("gate-1").lastMinute()).isZero();
+        assertThat(metrics.stats("gate-1").perMinuteFiveMin()).isEqualTo(0.2);
+
+        // the same ring slot, five minutes later
+        clock.addAndGet(239_000);
+        metrics.record("gate-1", CheckInResult.CHECKED_IN);
+        clock.addAndGet(1000);
+        assertThat(metrics.stats("gate-1").lastMinute()).isEqualTo(1);
+        assertThat(metrics.stats("gate-1").perMinuteFiveMin()).isEqualTo(0.2);
+        assertThat(metrics.stats("gate-1").totals()).containsEntry(CheckInResult.CHECKED_IN, 2L);
+    }
+}
@@ -0,0 +1,79 @@
+package com.amithfernando.qrseatreservation.core.service;
+
+import com.amithfernando.qrseatreservation.core.enums.SeatStatus;
+import com.amithfernando.qrseatreservation.core.repsitory.ReservationDetailRepository;
+import com.amithfernando.qrseatreservation.core.repsitory.SeatDetailRepository;
+import com.amithfernando.qrseatreservation.ui.dto.DashboardSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardServiceTest {
+
+    @Mock
+    private ReservationDetailRepository reservationDetailRepository;
+    @Mock
+    private SeatDetailRepository seatDetailRepository;
+
+    private final AtomicLong clock = new AtomicLong();
+    private DashboardService dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        dashboardService = new DashboardService(reservationDetailRepository, seatDetailRepository, 5, clock::get);
+        when(seatDetailRepository.countBySeatStatus()).thenReturn(List.of(
+                seatCount(SeatStatus.AVAILABLE, 120), seatCount(SeatStatus.RESERVED, 30), seatCount(SeatStatus.CHECKED_IN, 10)));
+        when(reservationDetailRepository.countDashboardTotals()).thenReturn(totals(12, 16, 4));
+    }
+
+    @Test
+    void getSummary_buildsAllCountsFromTwoQueries() {
+        DashboardSummary summary = dashboardService.getSummary();
+
+        assertThat(summary).isEqualTo(new DashboardSummary(12, 16, 4, 120, 30, 10, 0));
+        verify(seatDetailRepository, times(1)).countBySeatStatus();
+        verify(reservationDetailRepository, times(1)).countDashboardTotals();
+        verifyNoMoreInteractions(seatDetailRepository, reservationDetailRepository);
+    }
+
+    @Test
+    void getSummary_isCachedUntilTtlOrInvalidate() {
+        DashboardSummary first = dashboardService.getSummary();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(4));
+        assertThat(dashboardService.getSummary()).isSameAs(first);
+        verify(seatDetailRepository, times(1)).countBySeatStatus();
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        dashboardService.getSummary();
+        verify(seatDetailRepository, times(2)).countBySeatStatus();
+
+        dashboardService.invalidate();
+        dashboardService.getSummary();
+        verify(seatDetailRepository, times(3)).countBySeatStatus();
+    }
+
+    private static SeatDetailRepository.SeatStatusCount seatCount(SeatStatus status, long seats) {
+        return new SeatDetailRepository.SeatStatusCount() {
+            public SeatStatus getStatus() { return status; }
+            public long getSeats() { return seats; }
+        };
+    }
+
+    private static ReservationDetailRepository.DashboardTotals totals(long reservations, long tables, long sellers) {
+        return new ReservationDetailRepository.DashboardTotals() {
+            public long getReservations() { return reservations; }
+            public long getTables() { return tables; }
+            public long getSellers() { return sellers; }
+        };
+    }
+}
@@ -0,0 +1,180 @@
+package com.amithfernando.qrseatreservation.core.service;
+
+import com.amithfernando.qrseatreservation.core.enums.CheckInResult;
+import com.amithfernando.qrseatreservation.core.enums.ReservationStatus;
+import com.amithfernando.qrseatreservation.core.repsitory.SeatReservationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GateCheckInServiceTest {
+
+    @Mock
+    private ReservationService reservationService;
+    @TempDir
+    Path dir;
+
+    private final AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+    private GateCheckInService gate;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(reservationService.getTicketStates()).thenReturn(List.of(
+                row("T1", ReservationStatus.PAID),
+                row("T2", ReservationStatus.PAID),
+                row("T3", ReservationStatus.PAYMENT_PENDING),
+                row("T4", ReservationStatus.CHECKED_IN)));
+        gate = open();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        gate.stop();
+    }
+
+    @Test
+    void checkIn_answersFromTheSnapshot_andJournalsOnlyFirstScans() throws Exception {
+        // the database is gone after the snapshot was taken
+        reset(reservationService);
+
+        assertThat(gate.checkIn("T1")).isEqualTo(CheckInResult.CHECKED_IN);
+        assertThat(gate.checkIn(" T1 ")).isEqualTo(CheckInResult.ALREADY_CHECKED_IN);
+        assertThat(gate.checkIn("T3")).isEqualTo(CheckInResult.NOT_PAID);
+        assertThat(gate.checkIn("T4")).isEqualTo(CheckInResult.ALREADY_CHECKED_IN);
+        assertThat(gate.checkIn("T9")).isEqualTo(CheckInResult.UNKNOWN);
+
+        assertThat(Files.readAllLines(dir.resolve("checkin.journal")))
+                .containsExactly("T1\tgate-a\t" + clock.get());
+        assertThat(gate.find("T1")).get().extracting(GateCheckInService.GateTicket::status)
+                .isEqualTo(ReservationStatus.CHECKED_IN);
+        verifyNoInteractions(reservationService);
+    }
+
+    @Test
+    void concurrentScans_ofOneTicket_checkInOnce_andAllLinesReachTheJournal() throws Exception {
+        List<String> many = IntStream.range(0, 200).mapToObj(i -> "M" + i).toList();
+        when(reservationService.getTicketStates()).thenReturn(many.stream()
+                .map(t -> row(t, ReservationStatus.PAID)).toList());
+        gate.sync();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<CheckInResult>> scans = IntStream.range(0, 400)
+                    .mapToObj(i -> (Callable<CheckInResult>) () -> gate.checkIn(many.get(i % many.size())))
+                    .toList();
+            long checkedIn = 0;
+            for (Future<CheckInResult> result : pool.invokeAll(scans)) {
+                if (result.get() == CheckInResult.CHECKED_IN) checkedIn++;
+            }
+            assertThat(checkedIn).isEqualTo(200);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(Files.readAllLines(dir.resolve("checkin.journal"))).hasSize(200);
+    }
+
+    @Test
+    void sync_replaysTheJournal_andResumesAfterTheDatabaseFails() throws Exception {
+        gate.checkIn("T1");
+        clock.addAndGet(1000);
+        gate.checkIn("T2");
+
+        when(reservationService.applyGateCheckIn(anyString(), anyString(), any()))
+                .thenThrow(new RuntimeException("link down"));
+        gate.sync();
+        assertThat(gate.pendingBytes()).isPositive();
+
+        reset(reservationService);
+        when(reservationService.applyGateCheckIn(anyString(), anyString(), any())).thenReturn(true);
+        when(reservationService.getTicketStates()).thenReturn(List.of(
+                row("T1", ReservationStatus.CHECKED_IN), row("T2", ReservationStatus.CHECKED_IN)));
+        gate.sync();
+
+        verify(reservationService).applyGateCheckIn("T1", "gate-a", at(clock.get() - 1000));
+        verify(reservationService).applyGateCheckIn("T2", "gate-a", at(clock.get()));
+        assertThat(gate.pendingBytes()).isZero();
+        assertThat(gate.getLastSync()).isNotNull();
+
+        // replayed and truncated, nothing is applied twice
+        gate.sync();
+        verify(reservationService, times(2)).applyGateCheckIn(anyString(), anyString(), any());
+    }
+
+    @Test
+    void restart_withoutDatabase_keepsPendingCheckIns_andDropsATornLine() throws Exception {
+        gate.checkIn("T1");
+        gate.stop();
+        // a crash in the middle of the next write
+        Files.writeString(dir.resolve("checkin.journal"), "T2\tgate-a\t17", StandardCharsets.ISO_8859_1,
+                StandardOpenOption.APPEND);
+
+        reset(reservationService);
+        when(reservationService.getTicketStates()).thenThrow(new RuntimeException("link down"));
+        gate = open();
+
+        assertThat(gate.checkIn("T1")).isEqualTo(CheckInResult.ALREADY_CHECKED_IN);
+        assertThat(gate.checkIn("T2")).isEqualTo(CheckInResult.CHECKED_IN);
+        assertThat(gate.find("T2")).get().extracting(GateCheckInService.GateTicket::tableName).isEqualTo("Table 1");
+        assertThat(Files.readAllLines(dir.resolve("checkin.journal"))).hasSize(2)
+                .allMatch(line -> line.split("\t").length == 3);
+    }
+
+    private GateCheckInService open() throws Exception {
+        GateCheckInService service = new GateCheckInService(reservationService, "gate-a", dir, clock::get);
+        service.open();
+        return service;
+    }
+
+    private static LocalDateTime at(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static SeatReservationRepository.TicketState row(String ticketNo, ReservationStatus status) {
+        return new SeatReservationRepository.TicketState() {
+            @Override
+            public String getTicketNo() {
+                return ticketNo;
+            }
+
+            @Override
+            public ReservationStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public String getTableName() {
+                return "Table 1";
+            }
+
+            @Override
+            public String getSeatNo() {
+                return "S1";
+            }
+        };
+    }
+}
@@ -0,0 +1,287 @@
+package com.amithfernando.qrseatreservation.core.service;
+
+import com.amithfernando.qrseatreservation.core.enums.CheckInResult;
+import com.amithfernando.qrseatreservation.core.enums.ReservationStatus;
+import com.amithfernando.qrseatreservation.core.enums.SeatStatus;
+import com.amithfernando.qrseatreservation.core.enums.TicketType;
+import com.amithfernando.qrseatreservation.core.exception.SeatConflictException;
+import com.amithfernando.qrseatreservation.core.model.ReservationDetail;
+import com.amithfernando.qrseatreservation.core.model.SeatDetail;
+import com.amithfernando.qrseatreservation.core.model.SeatReservation;
+import com.amithfernando.qrseatreservation.core.model.TableDetail;
+import com.amithfernando.qrseatreservation.core.repsitory.SeatReservationRepository;
+import com.amithfernando.qrseatreservation.core.repsitory.TableDetailRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+
+/**
+ * ReservationService against MySQL, for what the mocked repositories in ReservationServiceTest cannot show:
+ * the conditional seat claim, the native check-in and gate replay statements and their guarantees under
+ * concurrent use. Every service call commits on its own, as in the application. Needs Docker, skipped without it.
+ */
+@DataJpaTest(properties = "spring.datasource.hikari.maximum-pool-size=" + ReservationServiceMySqlTest.THREADS)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ReservationService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class ReservationServiceMySqlTest {
+
+    static final int THREADS = 16;
+
+    @Container
+    @ServiceConnection
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.4");
+
+    @Autowired
+    private ReservationService reservationService;
+    @Autowired
+    private TableDetailRepository tableDetailRepository;
+    @Autowired
+    private SeatReservationRepository seatReservationRepository;
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @MockitoBean
+    private TicketService ticketService;
+    @MockitoBean
+    private SeatHoldRegistry seatHoldRegistry;
+
+    @AfterEach
+    void cleanUp() {
+        jdbc.update("DELETE FROM reservation_detail_seat_reservations");
+        jdbc.update("DELETE FROM seat_reservation");
+        jdbc.update("DELETE FROM reservation_detail");
+        jdbc.update("DELETE FROM seat_detail");
+        jdbc.update("DELETE FROM table_detail");
+    }
+
+    @Test
+    void checkInByTicketNo_concurrentScans_checkInEachTicketExactlyOnce() throws Exception {
+        // 100 paid tickets, 16 gates each scanning every ticket twice in their own order: 3200 scans
+        List<String> ticketNos = seedPaidTickets("T1", 100);
+        int scansPerTicket = 2;
+        Map<String, Queue<CheckInResult>> results = new ConcurrentHashMap<>();
+        ticketNos.forEach(ticketNo -> results.put(ticketNo, new ConcurrentLinkedQueue<>()));
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> gates = new ArrayList<>();
+        for (int gate = 0; gate < THREADS; gate++) {
+            List<String> scans = new ArrayList<>();
+            for (int i = 0; i < scansPerTicket; i++) {
+                scans.addAll(ticketNos);
+            }
+            Collections.shuffle(scans, new Random(gate));
+            gates.add(pool.submit(() -> {
+                start.await();
+                scans.forEach(ticketNo -> results.get(ticketNo).add(reservationService.checkInByTicketNo(ticketNo)));
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> gate : gates) {
+            gate.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        results.forEach((ticketNo, outcomes) -> {
+            assertThat(outcomes).hasSize(THREADS * scansPerTicket);
+            assertThat(outcomes).filteredOn(r -> r == CheckInResult.CHECKED_IN).as(ticketNo).hasSize(1);
+            assertThat(outcomes).filteredOn(r -> r != CheckInResult.CHECKED_IN).as(ticketNo)
+                    .containsOnly(CheckInResult.ALREADY_CHECKED_IN);
+        });
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM seat_reservation " +
+                "WHERE reservation_status = 'CHECKED_IN' AND checked_in_at IS NOT NULL", Integer.class)).isEqualTo(100);
+        // the seat moved with its ticket, and only once
+        assertThat(jdbc.queryForList("SELECT DISTINCT CONCAT(seat_status, '/', version) FROM seat_detail", String.class))
+                .containsExactly("CHECKED_IN/1");
+    }
+
+    @Test
+    void saveReservation_concurrentBookingsOfPopularTables_neverDoubleBook() throws Exception {
+        // 4 popular tables x 10 seats; 16 sellers each trying 50 bookings of 1-4 seats on them. Seat holds are
+        // mocked away, so every race is decided by the conditional claim in the database.
+        List<List<SeatDetail>> tables = new ArrayList<>();
+        for (int t = 1; t <= 4; t++) {
+            tables.add(seedTable("P" + t, 10, SeatStatus.AVAILABLE));
+        }
+        AtomicLong ticketSequence = new AtomicLong();
+        when(ticketService.allocateTicketNumbers(anyInt())).thenAnswer(call -> IntStream.range(0, call.<Integer>getArgument(0))
+                .mapToObj(i -> "B-" + ticketSequence.incrementAndGet())
+                .toList());
+        Queue<Integer> booked = new ConcurrentLinkedQueue<>();
+        Queue<Exception> unexpected = new ConcurrentLinkedQueue<>();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> sellers = new ArrayList<>();
+        for (int seller = 0; seller < THREADS; seller++) {
+            Random random = new Random(seller);
+            String holderId = "seller-" + seller;
+            sellers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 50; i++) {
+                    List<SeatDetail> seats = new ArrayList<>(tables.get(random.nextInt(tables.size())));
+                    Collections.shuffle(seats, random);
+                    Set<SeatReservation> picked = new HashSet<>();
+                    seats.subList(0, 1 + random.nextInt(4)).forEach(seat -> picked.add(SeatReservation.builder()
+                            .seatDetail(SeatDetail.builder().id(seat.getId()).build())
+                            .ticketType(TicketType.FULL)
+                            .build()));
+                    try {
+                        reservationService.saveReservation(ReservationDetail.builder().seatReservations(picked).build(), holderId);
+                        booked.add(picked.size());
+                    } catch (SeatConflictException e) {
+                        // lost the seats to another seller, the expected outcome for most attempts
+                    } catch (Exception e) {
+                        // a deadlock or lock wait timeout would end up here
+                        unexpected.add(e);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> seller : sellers) {
+            seller.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        assertThat(unexpected).isEmpty();
+        assertThat(booked).isNotEmpty();
+        int bookedSeats = booked.stream().mapToInt(Integer::intValue).sum();
+        assertThat(jdbc.queryForList("SELECT seat_detail_id FROM seat_reservation GROUP BY seat_detail_id " +
+                "HAVING COUNT(*) > 1", Long.class)).as("seats booked twice").isEmpty();
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM seat_reservation", Integer.class)).isEqualTo(bookedSeats);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM reservation_detail", Integer.class)).isEqualTo(booked.size());
+        // a booked seat was claimed once; a claim that fell short was rolled back with its version bumps
+        assertThat(jdbc.queryForList("SELECT DISTINCT CONCAT(sd.seat_status, '/', sd.version, '/', " +
+                "(SELECT COUNT(*) FROM seat_reservation sr WHERE sr.seat_detail_id = sd.id)) FROM seat_detail sd", String.class))
+                .isSubsetOf("RESERVED/1/1", "AVAILABLE/0/0");
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM seat_detail WHERE seat_status = 'RESERVED'", Integer.class))
+                .isEqualTo(bookedSeats);
+    }
+
+    @Test
+    void applyGateCheckIn_replayedOutOfOrderAndTwice_keepsTheEarliestCheckInAtTheLowestGate() {
+        LocalDateTime doors = LocalDateTime.of(2026, 3, 14, 19, 0);
+        // one ticket checked in offline at three gates; gate-2 and gate-3 tie on the earliest time
+        List<GateEntry> entries = List.of(
+                new GateEntry("gate-1", doors.plusSeconds(10)),
+                new GateEntry("gate-3", doors.plusSeconds(5)),
+                new GateEntry("gate-2", doors.plusSeconds(5)));
+        List<List<GateEntry>> orders = permutations(entries);
+        List<String> ticketNos = seedPaidTickets("T1", orders.size());
+
+        for (int i = 0; i < orders.size(); i++) {
+            String ticketNo = ticketNos.get(i);
+            List<GateEntry> order = orders.get(i);
+            order.forEach(entry -> reservationService.applyGateCheckIn(ticketNo, entry.gateId(), entry.checkedInAt()));
+            // a journal replayed again after a crash changes nothing
+            order.forEach(entry -> assertThat(reservationService.applyGateCheckIn(ticketNo, entry.gateId(),
+                    entry.checkedInAt())).as("%s replayed again", entry).isFalse());
+
+            assertThat(jdbc.queryForObject("SELECT CONCAT(reservation_status, '/', check_in_gate) FROM seat_reservation " +
+                    "WHERE ticket_no = ?", String.class, ticketNo)).as("order %s", order).isEqualTo("CHECKED_IN/gate-2");
+            assertThat(jdbc.queryForObject("SELECT checked_in_at FROM seat_reservation WHERE ticket_no = ?",
+                    LocalDateTime.class, ticketNo)).as("order %s", order).isEqualTo(doors.plusSeconds(5));
+        }
+        assertThat(jdbc.queryForList("SELECT DISTINCT seat_status FROM seat_detail", String.class))
+                .containsExactly("CHECKED_IN");
+    }
+
+    @Test
+    void applyGateCheckIn_leavesUnpaidAndUnknownTicketsAlone() {
+        String unpaid = seedTickets("T1", 1, ReservationStatus.PAYMENT_PENDING).get(0);
+
+        assertThat(reservationService.applyGateCheckIn(unpaid, "gate-1", LocalDateTime.now())).isFalse();
+        assertThat(reservationService.applyGateCheckIn("T-UNKNOWN", "gate-1", LocalDateTime.now())).isFalse();
+        assertThat(seatReservationRepository.findStatusByTicketNo(unpaid)).contains(ReservationStatus.PAYMENT_PENDING);
+        assertThat(jdbc.queryForObject("SELECT seat_status FROM seat_detail", String.class)).isEqualTo("RESERVED");
+    }
+
+    private List<String> seedPaidTickets(String tableName, int count) {
+        return seedTickets(tableName, count, ReservationStatus.PAID);
+    }
+
+    // one table with a reserved seat per ticket
+    private List<String> seedTickets(String tableName, int count, ReservationStatus status) {
+        List<SeatDetail> seats = seedTable(tableName, count, SeatStatus.RESERVED);
+        List<SeatReservation> reservations = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            reservations.add(SeatReservation.builder()
+                    .seatDetail(seats.get(i))
+                    .ticketNo(tableName + "-" + i)
+                    .ticketType(TicketType.FULL)
+                    .reservationStatus(status)
+                    .build());
+        }
+        seatReservationRepository.saveAll(reservations);
+        return reservations.stream().map(SeatReservation::getTicketNo).toList();
+    }
+
+    private List<SeatDetail> seedTable(String tableName, int seats, SeatStatus status) {
+        TableDetail table = TableDetail.builder().tableName(tableName).noOfSeats(seats).seatDetails(new ArrayList<>()).build();
+        for (int i = 1; i <= seats; i++) {
+            table.getSeatDetails().add(SeatDetail.builder().seatNo("S" + i).seatStatus(status).tableDetail(table).build());
+        }
+        tableDetailRepository.save(table);
+        return table.getSeatDetails();
+    }
+
+    private static <T> List<List<T>> permutations(List<T> items) {
+        if (items.size() <= 1) {
+            return List.of(items);
+        }
+        List<List<T>> permutations = new ArrayList<>();
+        for (T first : items) {
+            List<T> rest = new ArrayList<>(items);
+            rest.remove(first);
+            for (List<T> tail : permutations(rest)) {
+                List<T> permutation = new ArrayList<>();
+                permutation.add(first);
+                permutation.addAll(tail);
+                permutations.add(permutation);
+            }
+        }
+        return permutations;
+    }
+
+    private record GateEntry(String gateId, LocalDateTime checkedInAt) {
+    }
+}
@@ -1,8 +1,12 @@
 package com.amithfernando.qrseatreservation.core.service;
 
 
+import com.amithfernando.qrseatreservation.core.enums.CheckInResult;
 import com.amithfernando.qrseatreservation.core.enums.ReservationStatus;
 import com.amithfernando.qrseatreservation.core.enums.SeatStatus;
+import com.amithfernando.qrseatreservation.core.enums.TicketType;
+import com.amithfernando.qrseatreservation.core.event.SeatStatusChangedEvent;
+import com.amithfernando.qrseatreservation.core.exception.SeatConflictException;
 import com.amithfernando.qrseatreservation.core.model.ReservationDetail;
 import com.amithfernando.qrseatreservation.core.model.SeatDetail;
 import com.amithfernando.qrseatreservation.core.model.SeatReservation;
@@ -10,16 +14,26 @@ import com.amithfernando.qrseatreservation.core.model.Ticket;
 import com.amithfernando.qrseatreservation.core.repsitory.ReservationDetailRepository;
 import com.amithfernando.qrseatreservation.core.repsitory.SeatDetailRepository;
 import com.amithfernando.qrseatreservation.core.repsitory.SeatReservationRepository;
+import com.amithfernando.qrseatreservation.ui.dto.ReservationRow;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.*;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -34,16 +48,22 @@ class ReservationServiceTest {
     private SeatDetailRepository seatDetailRepository;
     @Mock
     private TicketService ticketService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
+    private SeatHoldRegistry seatHoldRegistry;
     private ReservationService reservationService;
 
     @BeforeEach
     void setUp() {
+        seatHoldRegistry = new SeatHoldRegistry(180, System::nanoTime);
         reservationService = new ReservationService(
                 reservationDetailRepository,
                 seatReservationRepository,
                 seatDetailRepository,
-                ticketService
+                ticketService,
+                seatHoldRegistry,
+                eventPublisher
         );
     }
 
@@ -62,18 +82,19 @@ class ReservationServiceTest {
                 .seatReservations(Set.of(sr))
                 .build();
 
-        when(seatDetailRepository.findById(10L)).thenReturn(Optional.of(seatDetail));
-        when(ticketService.getTicketNumber()).thenReturn("T-0001");
+        when(seatDetailRepository.findAllById(List.of(10L))).thenReturn(List.of(seatDetail));
+        when(seatDetailRepository.claimSeats(eq(List.of(10L)), eq(SeatStatus.AVAILABLE), eq(SeatStatus.RESERVED), any())).thenReturn(1);
+        when(ticketService.allocateTicketNumbers(1)).thenReturn(List.of("T-0001"));
 
         // Act
         reservationService.saveReservation(rd);
 
         // Assert
-        verify(ticketService, times(1)).getTicketNumber();
-        verify(seatReservationRepository, times(1)).save(any(SeatReservation.class));
-        verify(seatDetailRepository, times(1)).save(argThat(sd ->
-                sd.getSeatStatus() == SeatStatus.RESERVED && Objects.equals(getSeatDetailId(sd), 10L)
-        ));
+        verify(ticketService, times(1)).allocateTicketNumbers(1);
+        verify(seatReservationRepository, times(1)).saveAll(same(rd.getSeatReservations()));
+        // the seat row is updated by the conditional claim, never through a separate entity save
+        verify(seatDetailRepository, never()).saveAll(any());
+        assertThat(Objects.equals(getSeatDetailId(sr.getSeatDetail()), 10L)).isTrue();
         verify(reservationDetailRepository, times(1)).save(argThat(saved ->
                 saved.getReservationStatus() == ReservationStatus.PAYMENT_PENDING
                         && saved.getReferenceNo() != null && !saved.getReferenceNo().isBlank()
@@ -82,6 +103,178 @@ class ReservationServiceTest {
         assertThat(seatDetail.getSeatStatus()).isEqualTo(SeatStatus.RESERVED);
         assertThat(rd.getReservationStatus()).isEqualTo(ReservationStatus.PAYMENT_PENDING);
         assertThat(rd.getReferenceNo()).isNotBlank();
+        verify(eventPublisher).publishEvent(SeatStatusChangedEvent.forSeats(List.of(10L), SeatStatus.RESERVED));
+    }
+
+    @Test
+    void saveReservation_usesConstantNumberOfRepositoryCalls_regardlessOfSeatCount() {
+        Set<SeatReservation> seatReservations = new HashSet<>();
+        List<SeatDetail> seats = new ArrayList<>();
+        for (long id = 1; id <= 8; id++) {
+            SeatDetail seat = seatDetailRef(id);
+            seat.setSeatStatus(SeatStatus.AVAILABLE);
+            seats.add(seat);
+            seatReservations.add(SeatReservation.builder().seatDetail(seatDetailRef(id)).ticketType(TicketType.FULL).build());
+        }
+        ReservationDetail rd = ReservationDetail.builder().seatReservations(seatReservations).build();
+        when(seatDetailRepository.findAllById(anyList())).thenReturn(seats);
+        when(seatDetailRepository.claimSeats(anyList(), any(), any(), any())).thenReturn(8);
+        when(ticketService.allocateTicketNumbers(8)).thenReturn(
+                LongStream.rangeClosed(1, 8).mapToObj(i -> "T-" + i).toList());
+
+        reservationService.saveReservation(rd);
+
+        verify(seatDetailRepository, times(1)).findAllById(anyList());
+        verify(seatDetailRepository, never()).findById(any());
+        verify(seatDetailRepository, never()).save(any());
+        verify(seatReservationRepository, never()).save(any());
+        verify(seatReservationRepository, times(1)).saveAll(same(seatReservations));
+        verify(seatDetailRepository, times(1)).claimSeats(anyList(), any(), any(), any());
+        assertThat(seats).allMatch(seat -> seat.getSeatStatus() == SeatStatus.RESERVED);
+        assertThat(seatReservations).extracting(SeatReservation::getTicketNo).doesNotContainNull().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void saveReservation_throws_whenSeatMissing() {
+        SeatReservation sr = SeatReservation.builder().seatDetail(seatDetailRef(99L)).build();
+        ReservationDetail rd = ReservationDetail.builder().seatReservations(Set.of(sr)).build();
+        when(seatDetailRepository.findAllById(List.of(99L))).thenReturn(List.of());
+
+        assertThatThrownBy(() -> reservationService.saveReservation(rd))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("99");
+        verify(reservationDetailRepository, never()).save(any());
+    }
+
+    @Test
+    void saveReservation_failsFast_whenSeatAlreadyBooked() {
+        SeatDetail free = seatDetailRef(1L);
+        free.setSeatNo("A1");
+        free.setSeatStatus(SeatStatus.AVAILABLE);
+        SeatDetail booked = seatDetailRef(2L);
+        booked.setSeatNo("A2");
+        booked.setSeatStatus(SeatStatus.RESERVED);
+        ReservationDetail rd = ReservationDetail.builder().seatReservations(Set.of(
+                SeatReservation.builder().seatDetail(seatDetailRef(1L)).build(),
+                SeatReservation.builder().seatDetail(seatDetailRef(2L)).build())).build();
+        when(seatDetailRepository.findAllById(anyList())).thenReturn(List.of(free, booked));
+
+        assertThatThrownBy(() -> reservationService.saveReservation(rd))
+                .isInstanceOf(SeatConflictException.class)
+                .satisfies(ex -> assertThat(((SeatConflictException) ex).getSeatNos()).containsExactly("A2"));
+        verify(seatDetailRepository, never()).claimSeats(any(), any(), any(), any());
+        verifyNoInteractions(ticketService);
+        verify(seatReservationRepository, never()).saveAll(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void saveReservation_reportsConflict_whenClaimLosesRace() {
+        SeatDetail seat = seatDetailRef(3L);
+        seat.setSeatNo("B1");
+        seat.setSeatStatus(SeatStatus.AVAILABLE);
+        ReservationDetail rd = ReservationDetail.builder().seatReservations(Set.of(
+                SeatReservation.builder().seatDetail(seatDetailRef(3L)).build())).build();
+        when(seatDetailRepository.findAllById(anyList())).thenReturn(List.of(seat));
+        when(seatDetailRepository.claimSeats(anyList(), any(), any(), any())).thenReturn(0);
+
+        assertThatThrownBy(() -> reservationService.saveReservation(rd))
+                .isInstanceOf(SeatConflictException.class)
+                .hasMessageContaining("B1");
+        verifyNoInteractions(ticketService);
+        verify(reservationDetailRepository, never()).save(any());
+        // a failed one-off booking must not leave its holds behind
+        assertThat(seatHoldRegistry.heldSeatIds()).isEmpty();
+    }
+
+    @Test
+    void saveReservation_refusesSeatsHeldByAnotherSession() {
+        SeatDetail held = seatDetailRef(4L);
+        held.setSeatNo("C1");
+        held.setSeatStatus(SeatStatus.AVAILABLE);
+        ReservationDetail rd = ReservationDetail.builder().seatReservations(Set.of(
+                SeatReservation.builder().seatDetail(seatDetailRef(4L)).build())).build();
+        when(seatDetailRepository.findAllById(anyList())).thenReturn(List.of(held));
+        seatHoldRegistry.hold("other-session", List.of(4L));
+
+        assertThatThrownBy(() -> reservationService.saveReservation(rd, "my-session"))
+                .isInstanceOf(SeatConflictException.class)
+                .satisfies(ex -> assertThat(((SeatConflictException) ex).getSeatNos()).containsExactly("C1"));
+        verify(seatDetailRepository, never()).claimSeats(any(), any(), any(), any());
+        assertThat(seatHoldRegistry.isHeldByOther(4L, "my-session")).isTrue();
+    }
+
+    @Test
+    void saveReservation_releasesOwnHolds_afterBooking() {
+        SeatDetail seat = seatDetailRef(5L);
+        seat.setSeatNo("D1");
+        seat.setSeatStatus(SeatStatus.AVAILABLE);
+        ReservationDetail rd = ReservationDetail.builder().seatReservations(new HashSet<>(Set.of(
+                SeatReservation.builder().seatDetail(seatDetailRef(5L)).build()))).build();
+        when(seatDetailRepository.findAllById(anyList())).thenReturn(List.of(seat));
+        when(seatDetailRepository.claimSeats(anyList(), any(), any(), any())).thenReturn(1);
+        when(ticketService.allocateTicketNumbers(1)).thenReturn(List.of("000001"));
+        seatHoldRegistry.hold("my-session", List.of(5L));
+
+        reservationService.saveReservation(rd, "my-session");
+
+        assertThat(seatHoldRegistry.heldSeatIds()).isEmpty();
+        verify(reservationDetailRepository).save(rd);
+    }
+
+    @Test
+    void saveReservation_inATransaction_releasesOwnHoldsOnlyOnCommit() {
+        SeatDetail seat = seatDetailRef(6L);
+        seat.setSeatNo("E1");
+        seat.setSeatStatus(SeatStatus.AVAILABLE);
+        when(seatDetailRepository.findAllById(anyList())).thenReturn(List.of(seat));
+        when(seatDetailRepository.claimSeats(anyList(), any(), any(), any())).thenReturn(1);
+        when(ticketService.allocateTicketNumbers(1)).thenReturn(List.of("000001"), List.of("000002"));
+        seatHoldRegistry.hold("my-session", List.of(6L));
+
+        // rolled back: the session keeps its hold and can try again
+        completeInTransaction(() -> reservationService.saveReservation(oneSeatReservation(6L), "my-session"),
+                TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertThat(seatHoldRegistry.isHeldByOther(6L, "other-session")).isTrue();
+        seat.setSeatStatus(SeatStatus.AVAILABLE);
+
+        // still held while the transaction is open, released once it commits
+        completeInTransaction(() -> {
+            reservationService.saveReservation(oneSeatReservation(6L), "my-session");
+            assertThat(seatHoldRegistry.isHeldByOther(6L, "other-session")).isTrue();
+        }, TransactionSynchronization.STATUS_COMMITTED);
+        assertThat(seatHoldRegistry.heldSeatIds()).isEmpty();
+    }
+
+    @Test
+    void saveReservation_inATransaction_releasesOneOffHoldsEitherWay() {
+        SeatDetail seat = seatDetailRef(7L);
+        seat.setSeatNo("F1");
+        seat.setSeatStatus(SeatStatus.AVAILABLE);
+        when(seatDetailRepository.findAllById(anyList())).thenReturn(List.of(seat));
+        when(seatDetailRepository.claimSeats(anyList(), any(), any(), any())).thenReturn(1);
+        when(ticketService.allocateTicketNumbers(1)).thenReturn(List.of("000001"));
+
+        completeInTransaction(() -> reservationService.saveReservation(oneSeatReservation(7L)),
+                TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(seatHoldRegistry.heldSeatIds()).isEmpty();
+    }
+
+    // runs the call with transaction synchronization on, as in a @Transactional method, then completes it
+    private static void completeInTransaction(Runnable call, int status) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            call.run();
+            TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCompletion(status));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private ReservationDetail oneSeatReservation(Long seatId) {
+        return ReservationDetail.builder().seatReservations(new HashSet<>(Set.of(
+                SeatReservation.builder().seatDetail(seatDetailRef(seatId)).build()))).build();
     }
 
     @Test
@@ -95,6 +288,32 @@ class ReservationServiceTest {
         verify(reservationDetailRepository, times(1)).findAllWithDetails();
     }
 
+    @Test
+    void findReservationRows_pagesSortsAndFiltersInTheRepository() {
+        List<ReservationRow> expected = List.of(new ReservationRow(1L, "ref", ReservationStatus.PAID, "Seller", null, "T1", 2));
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        when(reservationDetailRepository.findRows(eq("%pai%"), eq(List.of(ReservationStatus.PAID)), pageable.capture()))
+                .thenReturn(expected);
+
+        List<ReservationRow> rows = reservationService.findReservationRows(" PAI ", 100, 50,
+                Sort.by(Sort.Order.asc("sellerName"), Sort.Order.desc("notAColumn")));
+
+        assertThat(rows).isSameAs(expected);
+        assertThat(pageable.getValue().getPageNumber()).isEqualTo(2);
+        assertThat(pageable.getValue().getPageSize()).isEqualTo(50);
+        assertThat(pageable.getValue().getSort()).extracting(Sort.Order::getProperty).containsExactly("s.name", "rd.id");
+        verify(reservationDetailRepository, never()).findAllWithDetails();
+    }
+
+    @Test
+    void countReservationRows_matchesEverything_whenFilterBlank_andEscapesWildcards() {
+        when(reservationDetailRepository.countRows("%", List.of())).thenReturn(42L);
+        when(reservationDetailRepository.countRows("%50\\%%", List.of())).thenReturn(1L);
+
+        assertThat(reservationService.countReservationRows("  ")).isEqualTo(42);
+        assertThat(reservationService.countReservationRows("50%")).isEqualTo(1);
+    }
+
     @Test
     void deleteReservation_deletesSeatReservations_setsSeatAvailable_andDeletesReservation() {
         SeatDetail sd = new SeatDetail();
@@ -115,39 +334,43 @@ class ReservationServiceTest {
         ));
         verify(reservationDetailRepository, times(1)).delete(rd);
         assertThat(sd.getSeatStatus()).isEqualTo(SeatStatus.AVAILABLE);
+        verify(eventPublisher).publishEvent(SeatStatusChangedEvent.forSeats(List.of(5L), SeatStatus.AVAILABLE));
     }
 
     @Test
-    void getTicketImageZip_returnsNullWhenReservationNull() throws IOException {
-        byte[] result = reservationService.getTicketImageZip(null);
-        assertThat(result).isNull();
-        verifyNoInteractions(ticketService);
+    void writeTicketZip_streamsReservationTicketNos_inOrder() throws IOException {
+        SeatReservation sr1 = SeatReservation.builder().ticketNo("A2").build();
+        SeatReservation sr2 = SeatReservation.builder().ticketNo("A1").build();
+        SeatReservation unassigned = SeatReservation.builder().build();
+        ReservationDetail rd = ReservationDetail.builder()
+                .seatReservations(Set.of(sr1, sr2, unassigned))
+                .build();
+        OutputStream out = new ByteArrayOutputStream();
+
+        reservationService.writeTicketZip(rd, out);
+
+        verify(ticketService, times(1)).writeTicketZip(List.of("A1", "A2"), out);
+        verify(ticketService, never()).findByTicketNo(anyString());
     }
 
     @Test
-    void getTicketImageZip_collectsTickets_andDelegatesToZip() throws IOException {
-        SeatReservation sr1 = SeatReservation.builder().ticketNo("A1").build();
-        SeatReservation sr2 = SeatReservation.builder().ticketNo("A2").build();
-
-        ReservationDetail rd = ReservationDetail.builder()
-                .seatReservations(Set.of(sr1, sr2))
-                .build();
+    void writeSellerTicketZip_usesSellerTicketQuery() throws IOException {
+        when(reservationDetailRepository.findTicketNosBySellerId(5L)).thenReturn(List.of("S1", "S2"));
+        OutputStream out = new ByteArrayOutputStream();
 
-        Ticket t1 = new Ticket("A1", null, new byte[]{1, 2});
-        Ticket t2 = new Ticket("A2", null, new byte[]{3, 4});
+        reservationService.writeSellerTicketZip(5L, out);
 
-        when(ticketService.findByTicketNo("A1")).thenReturn(t1);
-        when(ticketService.findByTicketNo("A2")).thenReturn(t2);
+        verify(ticketService).writeTicketZip(List.of("S1", "S2"), out);
+    }
 
-        byte[] zipBytes = new byte[]{9, 9, 9};
-        when(ticketService.createZipFromImages(anyList())).thenReturn(zipBytes);
+    @Test
+    void writeEventTicketZip_usesAllAssignedTicketNos() throws IOException {
+        when(reservationDetailRepository.findAllTicketNos()).thenReturn(List.of("E1"));
+        OutputStream out = new ByteArrayOutputStream();
 
-        byte[] result = reservationService.getTicketImageZip(rd);
+        reservationService.writeEventTicketZip(out);
 
-        assertThat(result).isSameAs(zipBytes);
-        ArgumentCaptor<List<Ticket>> captor = ArgumentCaptor.forClass(List.class);
-        verify(ticketService, times(1)).createZipFromImages(captor.capture());
-        assertThat(captor.getValue()).containsExactlyInAnyOrder(t1, t2);
+        verify(ticketService).writeTicketZip(List.of("E1"), out);
     }
 
     @Test
@@ -176,15 +399,14 @@ class ReservationServiceTest {
 
     @Test
     void findReservationByTicketNo_returnsMatchingReservation() {
-        SeatReservation sr1 = SeatReservation.builder().ticketNo("X1").build();
         SeatReservation sr2 = SeatReservation.builder().ticketNo("X2").build();
-        ReservationDetail r1 = ReservationDetail.builder().seatReservations(Set.of(sr1)).build();
         ReservationDetail r2 = ReservationDetail.builder().seatReservations(Set.of(sr2)).build();
 
-        when(reservationDetailRepository.findAllWithDetails()).thenReturn(List.of(r1, r2));
+        when(reservationDetailRepository.findByTicketNo("X2")).thenReturn(Optional.of(r2));
 
         ReservationDetail found = reservationService.findReservationByTicketNo("X2");
         assertThat(found).isSameAs(r2);
+        verify(reservationDetailRepository, never()).findAllWithDetails();
     }
 
     @Test
@@ -192,67 +414,67 @@ class ReservationServiceTest {
         assertThat(reservationService.findReservationByTicketNo(null)).isNull();
         assertThat(reservationService.findReservationByTicketNo("  ")).isNull();
 
-        when(reservationDetailRepository.findAllWithDetails()).thenReturn(List.of());
+        when(reservationDetailRepository.findByTicketNo("NOPE")).thenReturn(Optional.empty());
         assertThat(reservationService.findReservationByTicketNo("NOPE")).isNull();
     }
 
     @Test
-    void checkInByTicketNo_success_updatesSeatReservationAndSeat_andReturnsTrue() {
-        SeatDetail sd = new SeatDetail();
-        setSeatDetailId(sd, 11L);
-        sd.setSeatStatus(SeatStatus.RESERVED);
-        SeatReservation target = SeatReservation.builder()
-                .seatDetail(sd)
-                .ticketNo("TICK-1")
-                .reservationStatus(ReservationStatus.PAID)
-                .build();
-
-        ReservationDetail r = ReservationDetail.builder()
-                .seatReservations(Set.of(target))
+    void ticketLookups_makeOneRepositoryCallEach() {
+        ReservationDetail owner = ReservationDetail.builder()
+                .seatReservations(Set.of(SeatReservation.builder().ticketNo("T-1").build()))
                 .build();
+        when(reservationDetailRepository.findByTicketNo("T-1")).thenReturn(Optional.of(owner));
+        when(seatReservationRepository.checkInIfPaid(eq("T-1"), any())).thenReturn(2);
 
-        when(reservationDetailRepository.findAllWithDetails()).thenReturn(List.of(r));
+        reservationService.findReservationByTicketNo("T-1");
+        reservationService.checkInByTicketNo("T-1");
 
-        boolean result = reservationService.checkInByTicketNo("TICK-1");
-
-        assertThat(result).isTrue();
-        assertThat(target.getReservationStatus()).isEqualTo(ReservationStatus.CHECKED_IN);
-        assertThat(sd.getSeatStatus()).isEqualTo(SeatStatus.CHECKED_IN);
-        verify(seatReservationRepository, times(1)).save(target);
-        verify(seatDetailRepository, times(1)).save(sd);
+        verify(reservationDetailRepository, times(1)).findByTicketNo("T-1");
+        verify(seatReservationRepository, times(1)).checkInIfPaid(eq("T-1"), any());
+        verifyNoMoreInteractions(reservationDetailRepository, seatReservationRepository);
     }
 
     @Test
-    void checkInByTicketNo_alreadyCheckedIn_returnsFalse_andDoesNotSave() {
-        SeatDetail sd = new SeatDetail();
-        setSeatDetailId(sd, 12L);
-        sd.setSeatStatus(SeatStatus.CHECKED_IN);
-        SeatReservation target = SeatReservation.builder()
-                .seatDetail(sd)
-                .ticketNo("TICK-2")
-                .reservationStatus(ReservationStatus.CHECKED_IN)
-                .build();
+    void checkInByTicketNo_success_runsSingleConditionalUpdate() {
+        when(seatReservationRepository.checkInIfPaid(eq("TICK-1"), any())).thenReturn(2);
 
-        ReservationDetail r = ReservationDetail.builder()
-                .seatReservations(Set.of(target))
-                .build();
+        CheckInResult result = reservationService.checkInByTicketNo("TICK-1");
 
-        when(reservationDetailRepository.findAllWithDetails()).thenReturn(List.of(r));
+        assertThat(result).isEqualTo(CheckInResult.CHECKED_IN);
+        verify(seatReservationRepository, never()).findStatusByTicketNo(any());
+        verify(seatReservationRepository, never()).save(any());
+        verify(seatDetailRepository, never()).save(any());
+        // check-in never touches tickets, let alone their images
+        verifyNoInteractions(ticketService);
+        verify(eventPublisher).publishEvent(SeatStatusChangedEvent.forTickets(List.of("TICK-1"), SeatStatus.CHECKED_IN));
+    }
 
-        boolean result = reservationService.checkInByTicketNo("TICK-2");
+    @Test
+    void checkInByTicketNo_alreadyCheckedIn_reportsOutcome() {
+        when(seatReservationRepository.checkInIfPaid(eq("TICK-2"), any())).thenReturn(0);
+        when(seatReservationRepository.findStatusByTicketNo("TICK-2")).thenReturn(Optional.of(ReservationStatus.CHECKED_IN));
 
-        assertThat(result).isFalse();
+        assertThat(reservationService.checkInByTicketNo("TICK-2")).isEqualTo(CheckInResult.ALREADY_CHECKED_IN);
         verify(seatReservationRepository, never()).save(any());
         verify(seatDetailRepository, never()).save(any());
     }
 
     @Test
-    void checkInByTicketNo_notFoundOrInvalid_returnsFalse() {
-        when(reservationDetailRepository.findAllWithDetails()).thenReturn(List.of());
+    void checkInByTicketNo_notPaid_reportsOutcome() {
+        when(seatReservationRepository.checkInIfPaid(eq("TICK-3"), any())).thenReturn(0);
+        when(seatReservationRepository.findStatusByTicketNo("TICK-3")).thenReturn(Optional.of(ReservationStatus.PAYMENT_PENDING));
+
+        assertThat(reservationService.checkInByTicketNo("TICK-3")).isEqualTo(CheckInResult.NOT_PAID);
+    }
+
+    @Test
+    void checkInByTicketNo_notFoundOrInvalid_reportsUnknown() {
+        when(seatReservationRepository.checkInIfPaid(eq("UNKNOWN"), any())).thenReturn(0);
+        when(seatReservationRepository.findStatusByTicketNo("UNKNOWN")).thenReturn(Optional.empty());
 
-        assertThat(reservationService.checkInByTicketNo(null)).isFalse();
-        assertThat(reservationService.checkInByTicketNo(" ")).isFalse();
-        assertThat(reservationService.checkInByTicketNo("UNKNOWN")).isFalse();
+        assertThat(reservationService.checkInByTicketNo(null)).isEqualTo(CheckInResult.UNKNOWN);
+        assertThat(reservationService.checkInByTicketNo(" ")).isEqualTo(CheckInResult.UNKNOWN);
+        assertThat(reservationService.checkInByTicketNo("UNKNOWN")).isEqualTo(CheckInResult.UNKNOWN);
     }
 
     // Helpers
@@ -0,0 +1,54 @@
+package com.amithfernando.qrseatreservation.core.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SeatHoldRegistryTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final SeatHoldRegistry registry = new SeatHoldRegistry(60, clock::get);
+
+    @Test
+    void hold_refusesSeatsHeldByAnotherHolder_andRenewsOwnHolds() {
+        assertThat(registry.hold("a", List.of(1L, 2L))).isEmpty();
+
+        assertThat(registry.hold("b", List.of(2L, 3L))).containsExactly(2L);
+        assertThat(registry.hold("a", List.of(1L, 2L))).isEmpty();
+        assertThat(registry.isHeldByOther(2L, "b")).isTrue();
+        assertThat(registry.isHeldByOther(2L, "a")).isFalse();
+        assertThat(registry.heldSeatIds()).containsExactlyInAnyOrder(1L, 2L, 3L);
+    }
+
+    @Test
+    void expiredHolds_canBeTakenOver_andAreSwept() {
+        registry.hold("a", List.of(1L));
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(59));
+        registry.hold("b", List.of(2L));
+        assertThat(registry.isHeldByOther(1L, "b")).isTrue();
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(registry.isHeldByOther(1L, "b")).isFalse();
+        assertThat(registry.heldSeatIds()).containsExactly(2L);
+
+        registry.sweep();
+        assertThat(registry.size()).isEqualTo(1);
+        assertThat(registry.hold("b", List.of(1L))).isEmpty();
+    }
+
+    @Test
+    void release_onlyDropsTheCallersHolds() {
+        registry.hold("a", List.of(1L, 2L));
+        registry.hold("b", List.of(3L));
+
+        registry.release("b", List.of(1L, 3L));
+        assertThat(registry.heldSeatIds()).containsExactlyInAnyOrder(1L, 2L);
+
+        registry.releaseAll("a");
+        assertThat(registry.size()).isZero();
+    }
+}
@@ -0,0 +1,124 @@
+package com.amithfernando.qrseatreservation.core.service;
+
+import com.amithfernando.qrseatreservation.core.enums.SeatStatus;
+import com.amithfernando.qrseatreservation.core.event.SeatStatusChangedEvent;
+import com.amithfernando.qrseatreservation.core.repsitory.SeatDetailRepository;
+import com.amithfernando.qrseatreservation.core.repsitory.SeatReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeatStateIndexTest {
+
+    @Mock
+    private SeatDetailRepository seatDetailRepository;
+    @Mock
+    private SeatReservationRepository seatReservationRepository;
+
+    private SeatStatusBroadcaster broadcaster;
+    private SeatStateIndex index;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new SeatStatusBroadcaster(seatReservationRepository);
+        index = new SeatStateIndex(seatDetailRepository, broadcaster);
+        index.followCheckIns();
+        // table 1: seats 10-13, table 2: seats 20-21
+        when(seatDetailRepository.findAllSeatStates()).thenReturn(List.of(
+                row(10L, 1L, SeatStatus.AVAILABLE),
+                row(11L, 1L, SeatStatus.RESERVED),
+                row(12L, 1L, SeatStatus.AVAILABLE),
+                row(13L, 1L, SeatStatus.UNAVAILABLE),
+                row(20L, 2L, SeatStatus.AVAILABLE),
+                row(21L, 2L, SeatStatus.CHECKED_IN)));
+        index.rebuild();
+    }
+
+    @Test
+    void rebuild_answersPerTableAndVenueQueries() {
+        assertThat(index.freeSeatIds(1L)).containsExactly(10L, 12L);
+        assertThat(index.count(1L, SeatStatus.RESERVED)).isEqualTo(1);
+        assertThat(index.count(2L, SeatStatus.CHECKED_IN)).isEqualTo(1);
+        assertThat(index.freeSeatIds(99L)).isEmpty();
+        assertThat(index.tablesWithFreeSeats(2)).containsExactly(1L);
+        assertThat(index.tablesWithFreeSeats(1)).containsExactly(1L, 2L);
+        assertThat(index.total(SeatStatus.AVAILABLE)).isEqualTo(3);
+        assertThat(index.total(SeatStatus.UNAVAILABLE)).isEqualTo(1);
+        verify(seatDetailRepository, times(1)).findAllSeatStates();
+    }
+
+    @Test
+    void statusEvents_moveSeatsBetweenBitsets_andKeepTotals() {
+        index.onSeatStatusChanged(SeatStatusChangedEvent.forSeats(List.of(10L, 20L), SeatStatus.RESERVED));
+
+        assertThat(index.freeSeatIds(1L)).containsExactly(12L);
+        assertThat(index.isFree(20L)).isFalse();
+        assertThat(index.tablesWithFreeSeats(1)).containsExactly(1L);
+        assertThat(index.total(SeatStatus.AVAILABLE)).isEqualTo(1);
+        assertThat(index.total(SeatStatus.RESERVED)).isEqualTo(3);
+
+        index.onSeatStatusChanged(SeatStatusChangedEvent.forSeats(List.of(10L), SeatStatus.AVAILABLE));
+        assertThat(index.freeSeatIds(1L)).containsExactly(10L, 12L);
+        assertThat(index.total(SeatStatus.RESERVED)).isEqualTo(2);
+        verifyNoMoreInteractions(seatDetailRepository);
+    }
+
+    @Test
+    void checkIns_resolvedByTheBroadcaster_onlyMoveReservedSeats() {
+        // seat 11 is reserved; seat 12 was freed by the time the window is flushed
+        when(seatReservationRepository.findSeatIdsByTicketNos(anyCollection())).thenReturn(List.of(11L, 12L));
+        index.onSeatStatusChanged(SeatStatusChangedEvent.forTickets(List.of("T-1", "T-2"), SeatStatus.CHECKED_IN));
+        broadcaster.onSeatStatusChanged(SeatStatusChangedEvent.forTickets(List.of("T-1", "T-2"), SeatStatus.CHECKED_IN));
+
+        broadcaster.flush();
+
+        assertThat(index.seatIds(1L, SeatStatus.CHECKED_IN)).containsExactly(11L);
+        assertThat(index.freeSeatIds(1L)).containsExactly(10L, 12L);
+        assertThat(index.total(SeatStatus.CHECKED_IN)).isEqualTo(2);
+    }
+
+    @Test
+    void seatsWithoutStatus_areNotFree_untilTheyGetOne() {
+        // as SeatDetail.isAvailable() sees it: a seat without a status cannot be booked
+        when(seatDetailRepository.findAllSeatStates()).thenReturn(List.of(
+                row(30L, 3L, null),
+                row(31L, 3L, SeatStatus.AVAILABLE)));
+        index.rebuild();
+
+        assertThat(index.isFree(30L)).isFalse();
+        assertThat(index.freeSeatIds(3L)).containsExactly(31L);
+        assertThat(index.tablesWithFreeSeats(2)).isEmpty();
+        assertThat(index.total(SeatStatus.AVAILABLE)).isEqualTo(1);
+
+        index.onSeatStatusChanged(SeatStatusChangedEvent.forSeats(List.of(30L), SeatStatus.AVAILABLE));
+        assertThat(index.freeSeatIds(3L)).containsExactly(30L, 31L);
+        assertThat(index.total(SeatStatus.AVAILABLE)).isEqualTo(2);
+    }
+
+    private static SeatDetailRepository.SeatState row(Long seatId, Long tableId, SeatStatus status) {
+        return new SeatDetailRepository.SeatState() {
+            @Override
+            public Long getSeatId() {
+                return seatId;
+            }
+
+            @Override
+            public Long getTableId() {
+                return tableId;
+            }
+
+            @Override
+            public SeatStatus getStatus() {
+                return status;
+            }
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package com.amithfernando.qrseatreservation.core.service;
+
+import com.amithfernando.qrseatreservation.core.enums.SeatStatus;
+import com.amithfernando.qrseatreservation.core.event.SeatStatusChangedEvent;
+import com.amithfernando.qrseatreservation.core.repsitory.SeatReservationRepository;
+import com.vaadin.flow.shared.Registration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeatStatusBroadcasterTest {
+
+    @Mock
+    private SeatReservationRepository seatReservationRepository;
+
+    private SeatStatusBroadcaster broadcaster;
+    private final List<Map<Long, SeatStatus>> received = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new SeatStatusBroadcaster(seatReservationRepository);
+    }
+
+    @Test
+    void flush_coalescesAWindowIntoOneDelta_lastChangeWins() {
+        broadcaster.register(received::add);
+
+        broadcaster.onSeatStatusChanged(SeatStatusChangedEvent.forSeats(List.of(1L, 2L), SeatStatus.RESERVED));
+        broadcaster.onSeatStatusChanged(SeatStatusChangedEvent.forSeats(List.of(2L), SeatStatus.AVAILABLE));
+        broadcaster.flush();
+        broadcaster.flush();
+
+        assertThat(received).containsExactly(Map.of(1L, SeatStatus.RESERVED, 2L, SeatStatus.AVAILABLE));
+        verifyNoInteractions(seatReservationRepository);
+    }
+
+    @Test
+    void flush_resolvesCheckedInTickets_withOneQueryPerWindow() {
+        broadcaster.register(received::add);
+        when(seatReservationRepository.findSeatIdsByTicketNos(anyCollection())).thenReturn(List.of(7L, 8L));
+
+        broadcaster.onSeatStatusChanged(SeatStatusChangedEvent.forTickets(List.of("T-1"), SeatStatus.CHECKED_IN));
+        broadcaster.onSeatStatusChanged(SeatStatusChangedEvent.forTickets(List.of("T-2"), SeatStatus.CHECKED_IN));
+        broadcaster.flush();
+
+        assertThat(received).containsExactly(Map.of(7L, SeatStatus.CHECKED_IN, 8L, SeatStatus.CHECKED_IN));
+        verify(seatReservationRepository, times(1)).findSeatIdsByTicketNos(anyCollection());
+    }
+
+    @Test
+    void failingListener_doesNotStopOthers_andRemovedListenersGetNothing() {
+        broadcaster.register(delta -> {
+            throw new IllegalStateException("UI gone");
+        });
+        Registration registration = broadcaster.register(received::add);
+        List<Map<Long, SeatStatus>> other = new ArrayList<>();
+        broadcaster.register(other::add);
+
+        broadcaster.onSeatStatusChanged(SeatStatusChangedEvent.forSeats(List.of(3L), SeatStatus.RESERVED));
+        broadcaster.flush();
+        registration.remove();
+        broadcaster.onSeatStatusChanged(SeatStatusChangedEvent.forSeats(List.of(4L), SeatStatus.RESERVED));
+        broadcaster.flush();
+
+        assertThat(received).containsExactly(Map.of(3L, SeatStatus.RESERVED));
+        assertThat(other).hasSize(2);
+        assertThat(broadcaster.listenerCount()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,118 @@
+package com.amithfernando.qrseatreservation.core.service;
+
+import com.amithfernando.qrseatreservation.core.enums.SeatStatus;
+import com.amithfernando.qrseatreservation.core.event.SeatLayoutChangedEvent;
+import com.amithfernando.qrseatreservation.core.event.SeatStatusChangedEvent;
+import com.amithfernando.qrseatreservation.core.model.SeatDetail;
+import com.amithfernando.qrseatreservation.core.model.Setting;
+import com.amithfernando.qrseatreservation.core.model.TableDetail;
+import com.amithfernando.qrseatreservation.core.service.SeatingLayoutImageService.Format;
+import com.amithfernando.qrseatreservation.core.service.SeatingLayoutImageService.LayoutImage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeatingLayoutImageServiceTest {
+
+    @Mock
+    private TableDetailService tableDetailService;
+    @Mock
+    private SettingService settingService;
+
+    private SeatingLayoutImageService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new SeatingLayoutImageService(tableDetailService, settingService);
+        when(settingService.getSnapshot()).thenReturn(snapshot(1));
+    }
+
+    @Test
+    void getImage_rendersOncePerVersion_andAgainAfterSeatOrTableChanges() {
+        when(tableDetailService.getAllTables()).thenReturn(List.of(table("T1", 4)));
+
+        LayoutImage first = service.getImage(Format.PNG);
+        assertThat(service.getImage(Format.PNG)).isSameAs(first);
+        verify(tableDetailService, times(1)).getAllTables();
+
+        service.onSeatStatusChanged(SeatStatusChangedEvent.forSeats(List.of(1L), SeatStatus.RESERVED));
+        LayoutImage second = service.getImage(Format.PNG);
+        assertThat(second.version()).isNotEqualTo(first.version());
+
+        service.onSeatLayoutChanged(new SeatLayoutChangedEvent("T2"));
+        assertThat(service.getImage(Format.PNG).version()).isNotEqualTo(second.version());
+        verify(tableDetailService, times(3)).getAllTables();
+    }
+
+    @Test
+    void getImage_rendersAgain_whenLayoutSettingsChange() {
+        when(tableDetailService.getAllTables()).thenReturn(List.of(table("T1", 4)));
+        LayoutImage first = service.getImage(Format.SVG);
+
+        when(settingService.getSnapshot()).thenReturn(snapshot(2));
+
+        assertThat(service.currentVersion()).isNotEqualTo(first.version());
+        assertThat(service.getImage(Format.SVG)).isNotSameAs(first);
+        verify(tableDetailService, times(2)).getAllTables();
+    }
+
+    @Test
+    void versions_fromBeforeARestart_neverMatch() {
+        // same seat and settings counters, as after a restart that saw the same number of changes
+        SeatingLayoutImageService restarted = new SeatingLayoutImageService(tableDetailService, settingService);
+
+        assertThat(restarted.currentVersion()).isNotEqualTo(service.currentVersion());
+    }
+
+    @Test
+    void png_coversTheWholeVenue_andSvgNamesEveryTableAndSeat() throws Exception {
+        List<TableDetail> tables = new ArrayList<>();
+        for (int i = 1; i <= 12; i++) {
+            tables.add(table("T" + i, 6));
+        }
+        when(tableDetailService.getAllTables()).thenReturn(tables);
+
+        BufferedImage png = ImageIO.read(new ByteArrayInputStream(service.getImage(Format.PNG).content()));
+        // 5 columns, 3 rows on a 200 px pitch plus the seats around the last row and column
+        assertThat(png.getWidth()).isGreaterThan(5 * 200 + 75);
+        assertThat(png.getHeight()).isGreaterThan(3 * 200 + 75);
+
+        String svg = new String(service.getImage(Format.SVG).content(), StandardCharsets.UTF_8);
+        assertThat(svg).startsWith("<svg").contains(">T12</text>");
+        assertThat(svg.split("<circle", -1)).hasSize(1 + 12 + 12 * 6);
+        assertThat(svg).contains("fill=\"#FF0000\"");
+    }
+
+    private static SettingSnapshot snapshot(long version) {
+        Setting setting = Setting.builder().id(1L).tableSize(100).seatSize(20).noOfColumns(5).build();
+        return SettingSnapshot.of(setting, version, () -> null);
+    }
+
+    // the first seat of every table is reserved
+    private static TableDetail table(String name, int seats) {
+        TableDetail table = TableDetail.builder().tableName(name).noOfSeats(seats).build();
+        List<SeatDetail> seatDetails = new ArrayList<>();
+        for (int i = 0; i < seats; i++) {
+            seatDetails.add(SeatDetail.builder()
+                    .seatNo("S" + (i + 1))
+                    .seatStatus(i == 0 ? SeatStatus.RESERVED : SeatStatus.AVAILABLE)
+                    .tableDetail(table)
+                    .build());
+        }
+        table.setSeatDetails(seatDetails);
+        return table;
+    }
+}
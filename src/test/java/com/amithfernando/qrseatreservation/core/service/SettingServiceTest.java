@@ -138,6 +138,47 @@ class SettingServiceTest {
         verify(settingRepository, times(1)).save(s);
     }
 
+    @Test
+    void getSnapshot_loadsFieldsOnce_andBaseImageOnlyWhenAsked() {
+        SettingRepository.SettingFields fields = mock(SettingRepository.SettingFields.class);
+        when(fields.getId()).thenReturn(1L);
+        when(fields.getQrX()).thenReturn(950);
+        when(settingRepository.findAllFields()).thenReturn(List.of(fields));
+
+        SettingSnapshot first = service.getSnapshot();
+        SettingSnapshot second = service.getSnapshot();
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.getQrX()).isEqualTo(950);
+        verify(settingRepository, times(1)).findAllFields();
+        verify(settingRepository, never()).findBaseImageById(any());
+        verify(settingRepository, never()).findAll();
+
+        when(settingRepository.findBaseImageById(1L)).thenReturn(new byte[]{1, 2});
+        assertThat(first.getBaseImage()).containsExactly(1, 2);
+        assertThat(first.getBaseImage()).containsExactly(1, 2);
+        verify(settingRepository, times(1)).findBaseImageById(1L);
+    }
+
+    @Test
+    void save_swapsSnapshot_withNewVersion_keepingTicketNumbering() {
+        Setting stored = Setting.builder().id(1L).qrX(10).baseImage(new byte[]{1}).ticketKey(5L).nextTicketIndex(0L).build();
+        service.save(stored);
+        service.updateTicketNumbering(service.getSnapshot(), 5L, 40L);
+        long before = service.getSnapshot().getVersion();
+
+        // a form copy loaded before numbering moved on still carries index 0
+        Setting edited = Setting.builder().id(1L).qrX(20).baseImage(new byte[]{1}).ticketKey(5L).nextTicketIndex(0L).build();
+        service.save(edited);
+
+        SettingSnapshot after = service.getSnapshot();
+        assertThat(after.getVersion()).isEqualTo(before + 1);
+        assertThat(after.getQrX()).isEqualTo(20);
+        assertThat(after.getNextTicketIndex()).isEqualTo(40L);
+        verify(settingRepository, never()).findAllFields();
+        verify(settingRepository, never()).findBaseImageById(any());
+    }
+
     // Reflection helpers to inject @Value fields for unit testing
     private void setInt(String fieldName, int value) throws Exception {
         Field f = SettingService.class.getDeclaredField(fieldName);
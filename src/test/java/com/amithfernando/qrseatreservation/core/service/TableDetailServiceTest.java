@@ -1,16 +1,19 @@
 package com.amithfernando.qrseatreservation.core.service;
 
 import com.amithfernando.qrseatreservation.core.enums.SeatStatus;
+import com.amithfernando.qrseatreservation.core.event.SeatLayoutChangedEvent;
 import com.amithfernando.qrseatreservation.core.model.SeatDetail;
 import com.amithfernando.qrseatreservation.core.model.TableDetail;
 import com.amithfernando.qrseatreservation.core.repsitory.SeatDetailRepository;
 import com.amithfernando.qrseatreservation.core.repsitory.TableDetailRepository;
 import com.amithfernando.qrseatreservation.ui.dto.TableDetailSummary;
+import com.amithfernando.qrseatreservation.ui.dto.TableOption;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -27,11 +30,17 @@ class TableDetailServiceTest {
     @Mock
     private SeatDetailRepository seatRepo;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private SeatStateIndex seatStateIndex;
+
     private TableDetailService service;
 
     @BeforeEach
     void setUp() {
-        service = new TableDetailService(tableRepo, seatRepo);
+        service = new TableDetailService(tableRepo, seatRepo, eventPublisher, seatStateIndex);
     }
 
     @Test
@@ -119,6 +128,26 @@ class TableDetailServiceTest {
         verify(tableRepo, times(1)).findAll();
     }
 
+    @Test
+    void getTableOptions_usesTheProjection_notTheTableEntities() {
+        List<TableOption> options = List.of(new TableOption(1L, "A01", 4), new TableOption(2L, "A02", 6));
+        when(tableRepo.findTableOptions()).thenReturn(options);
+
+        assertThat(service.getTableOptions()).isSameAs(options);
+        verify(tableRepo, never()).findAll();
+    }
+
+    @Test
+    void getFreeSeats_loadsOnlyIndexedFreeSeats_andDropsOnesTakenSince() {
+        when(seatStateIndex.freeSeatIds(1L)).thenReturn(List.of(3L, 5L));
+        SeatDetail taken = SeatDetail.builder().id(3L).seatNo("S3").seatStatus(SeatStatus.RESERVED).build();
+        SeatDetail free = SeatDetail.builder().id(5L).seatNo("S5").seatStatus(SeatStatus.AVAILABLE).build();
+        when(seatRepo.findAllById(List.of(3L, 5L))).thenReturn(List.of(free, taken));
+
+        assertThat(service.getFreeSeats(1L)).containsExactly(free);
+        verifyNoInteractions(tableRepo);
+    }
+
     @Test
     void getGetTableSummary_computesTotals_fromRepositoryData() {
         List<TableDetail> data = new ArrayList<>();
@@ -140,5 +169,6 @@ class TableDetailServiceTest {
         service.delete(table);
 
         verify(tableRepo, times(1)).delete(table);
+        verify(eventPublisher).publishEvent(new SeatLayoutChangedEvent("X"));
     }
 }
@@ -4,7 +4,11 @@ package com.amithfernando.qrseatreservation.core.service;
 import com.amithfernando.qrseatreservation.core.enums.TicketStatus;
 import com.amithfernando.qrseatreservation.core.model.Setting;
 import com.amithfernando.qrseatreservation.core.model.Ticket;
+import com.amithfernando.qrseatreservation.core.model.TicketImage;
+import com.amithfernando.qrseatreservation.core.repsitory.TicketImageRepository;
 import com.amithfernando.qrseatreservation.core.repsitory.TicketRepository;
+import com.amithfernando.qrseatreservation.core.util.TicketNumberPermutation;
+import com.amithfernando.qrseatreservation.core.util.TicketTemplate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,8 +19,12 @@ import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.*;
+import java.lang.reflect.Field;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
@@ -30,6 +38,9 @@ class TicketServiceTest {
     @Mock
     private TicketRepository ticketRepository;
 
+    @Mock
+    private TicketImageRepository ticketImageRepository;
+
     @Mock
     private SettingService settingService;
 
@@ -37,38 +48,88 @@ class TicketServiceTest {
 
     @BeforeEach
     void setup() {
-        ticketService = new TicketService(ticketRepository, settingService);
+        ticketService = new TicketService(ticketRepository, ticketImageRepository, settingService,
+                new TicketSigningService(false, "", "EVENT", true));
     }
 
     @Test
     void generateTicketNos_createsConfiguredNumberOfTickets_withImages_andAvailableStatus() throws Exception {
         // Arrange: Setting with valid base image and small numbers for fast test
         Setting setting = baseSetting(2, "T-", 5, createPngBytes(200, 120, Color.WHITE));
-        when(settingService.getSetting()).thenReturn(setting);
-        // Ensure uniqueness check passes
-        when(ticketRepository.findByTicketNo(anyString())).thenReturn(null);
+        when(settingService.getSnapshot()).thenReturn(snapshot(setting, 1));
 
-        ArgumentCaptor<Ticket> ticketCaptor = ArgumentCaptor.forClass(Ticket.class);
+        ArgumentCaptor<List<TicketImage>> batchCaptor = ArgumentCaptor.forClass(List.class);
 
         // Act
         ticketService.generateTicketNos();
 
-        // Assert
-        verify(ticketRepository, times(2)).save(ticketCaptor.capture());
-        List<Ticket> saved = ticketCaptor.getAllValues();
+        // Assert: both tickets persisted in a single batch
+        verify(ticketImageRepository, times(1)).saveAll(batchCaptor.capture());
+        List<TicketImage> saved = batchCaptor.getValue();
         assertThat(saved).hasSize(2);
-        assertThat(saved).allMatch(t -> t.getStatus() == TicketStatus.AVAILABLE);
-        assertThat(saved).allMatch(t -> t.getTicketNo() != null && !t.getTicketNo().isBlank());
+        assertThat(saved).allMatch(i -> i.getTicket().getStatus() == TicketStatus.AVAILABLE);
+        assertThat(saved).allMatch(i -> i.getTicket().getTicketNo() != null && !i.getTicket().getTicketNo().isBlank());
         // Image bytes were generated
         assertThat(saved.get(0).getData()).isNotNull().isNotEmpty();
         assertThat(saved.get(1).getData()).isNotNull().isNotEmpty();
     }
 
+    @Test
+    void generateTicketNos_issuesPermutedNumbers_withoutPerTicketLookups_andPersistsNextIndex() throws Exception {
+        Setting setting = baseSetting(5, "T-", 3, createPngBytes(200, 120, Color.WHITE));
+        setting.setTicketKey(99L);
+        when(settingService.getSnapshot()).thenReturn(snapshot(setting, 1));
+
+        ArgumentCaptor<List<TicketImage>> batchCaptor = ArgumentCaptor.forClass(List.class);
+        ticketService.generateTicketNos();
+
+        verify(ticketImageRepository).saveAll(batchCaptor.capture());
+        TicketNumberPermutation permutation = new TicketNumberPermutation(99L, 3);
+        List<String> expected = LongStream.range(0, 5).mapToObj(i -> String.format("T-%03d", permutation.permute(i))).toList();
+        assertThat(batchCaptor.getValue()).extracting(i -> i.getTicket().getTicketNo()).containsExactlyInAnyOrderElementsOf(expected);
+        verify(ticketRepository, never()).findByTicketNo(anyString());
+        verify(ticketRepository, times(1)).findAllTicketNos();
+        verify(settingService).updateTicketNumbering(any(), eq(99L), eq(5L));
+    }
+
+    @Test
+    void generateTicketNos_resumesFromStoredIndex_andSkipsExistingNumbers() throws Exception {
+        Setting setting = baseSetting(2, "T-", 3, createPngBytes(200, 120, Color.WHITE));
+        setting.setTicketKey(99L);
+        setting.setNextTicketIndex(10L);
+        TicketNumberPermutation permutation = new TicketNumberPermutation(99L, 3);
+        String legacy = String.format("T-%03d", permutation.permute(10));
+        when(settingService.getSnapshot()).thenReturn(snapshot(setting, 1));
+        when(ticketRepository.findAllTicketNos()).thenReturn(List.of(legacy));
+
+        ArgumentCaptor<List<TicketImage>> batchCaptor = ArgumentCaptor.forClass(List.class);
+        ticketService.generateTicketNos();
+
+        verify(ticketImageRepository).saveAll(batchCaptor.capture());
+        assertThat(batchCaptor.getValue()).extracting(i -> i.getTicket().getTicketNo()).containsExactlyInAnyOrder(
+                String.format("T-%03d", permutation.permute(11)),
+                String.format("T-%03d", permutation.permute(12)));
+        verify(settingService).updateTicketNumbering(any(), eq(99L), eq(13L));
+    }
+
+    @Test
+    void generateTicketNos_throws_whenNumberSpaceExhausted() throws Exception {
+        Setting setting = baseSetting(5, "T-", 1, createPngBytes(200, 120, Color.WHITE));
+        setting.setTicketKey(1L);
+        setting.setNextTicketIndex(7L);
+        when(settingService.getSnapshot()).thenReturn(snapshot(setting, 1));
+
+        assertThatThrownBy(() -> ticketService.generateTicketNos())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("exhausted");
+        verify(ticketImageRepository, never()).saveAll(anyList());
+    }
+
     @Test
     void generateQrTicketPreview_returnsBufferedImage() throws Exception {
         // Arrange
         Setting setting = baseSetting(1, "X-", 4, createPngBytes(160, 100, Color.WHITE));
-        when(settingService.getSetting()).thenReturn(setting);
+        when(settingService.getSnapshot()).thenReturn(snapshot(setting, 1));
 
         // Act
         BufferedImage img = ticketService.generateQrTicketPreview(
@@ -86,7 +147,7 @@ class TicketServiceTest {
     void generateQrTicketPreview_throwsWhenBaseImageCorrupted() {
         // Arrange: baseImage is not a valid image (random bytes), ImageIO.read will return null
         Setting setting = baseSetting(1, "X-", 4, new byte[]{7, 3, 9, 1});
-        when(settingService.getSetting()).thenReturn(setting);
+        when(settingService.getSnapshot()).thenReturn(snapshot(setting, 1));
 
         // Act + Assert
         assertThatThrownBy(() ->
@@ -96,33 +157,82 @@ class TicketServiceTest {
     }
 
     @Test
-    void getTicketNumber_marksFirstAvailableAsUsed_andReturnsTicketNo() {
-        // Arrange
-        Ticket available = Ticket.builder()
-                .ticketNo("T-12345")
-                .status(TicketStatus.AVAILABLE)
-                .data(new byte[]{1})
-                .build();
-        when(ticketRepository.findTcicketByStatus(TicketStatus.AVAILABLE))
-                .thenReturn(List.of(available));
+    void generateQrTicketPreview_decodesTemplateOnce_untilSettingsVersionChanges() throws Exception {
+        byte[] image = createPngBytes(160, 100, Color.WHITE);
+        Setting setting = baseSetting(1, "X-", 4, null);
+        AtomicInteger imageLoads = new AtomicInteger();
+        SettingSnapshot v1 = lazySnapshot(setting, image, 1, imageLoads);
+        when(settingService.getSnapshot()).thenReturn(v1);
+
+        ticketService.generateQrTicketPreview(12, 10, 10, 10, 10, "X-0001");
+        TicketTemplate first = ticketService.getTemplate();
+        ticketService.generateQrTicketPreview(14, 20, 20, 10, 10, "X-0002");
+        assertThat(ticketService.getTemplate()).isSameAs(first);
+        // the blob is fetched once per snapshot, later renders cost no settings query
+        assertThat(imageLoads).hasValue(1);
+        verify(settingService, never()).getSetting();
+
+        when(settingService.getSnapshot()).thenReturn(lazySnapshot(setting, image, 2, imageLoads));
+        ticketService.generateQrTicketPreview(12, 10, 10, 10, 10, "X-0003");
+        assertThat(ticketService.getTemplate()).isNotSameAs(first);
+        assertThat(ticketService.getTemplate().getVersion()).isEqualTo(2);
+        assertThat(imageLoads).hasValue(2);
+    }
 
-        // Act
-        String out = ticketService.getTicketNumber();
+    @Test
+    void template_rendersOntoCopy_leavingSharedBaseUntouched() throws Exception {
+        Setting setting = baseSetting(1, "X-", 4, createPngBytes(160, 100, Color.WHITE));
+        when(settingService.getSnapshot()).thenReturn(snapshot(setting, 1));
 
-        // Assert
-        assertThat(out).isEqualTo("T-12345");
-        assertThat(available.getStatus()).isEqualTo(TicketStatus.USED);
-        verify(ticketRepository, times(1)).save(available);
+        BufferedImage first = ticketService.getTemplate().render("X-0001");
+        BufferedImage second = ticketService.getTemplate().render("X-0002");
+
+        assertThat(first).isNotSameAs(second);
+        // a fresh render of the same number is pixel-identical, so nothing from earlier renders leaked into the base
+        BufferedImage again = ticketService.getTemplate().render("X-0001");
+        for (int y = 0; y < first.getHeight(); y++) {
+            for (int x = 0; x < first.getWidth(); x++) {
+                assertThat(again.getRGB(x, y)).isEqualTo(first.getRGB(x, y));
+            }
+        }
     }
 
     @Test
-    void getTicketNumber_returnsNull_whenNoAvailableTickets() {
-        when(ticketRepository.findTcicketByStatus(TicketStatus.AVAILABLE)).thenReturn(List.of());
+    void allocateTicketNumbers_claimsRequestedCount_inOneQuery_andMarksThemUsed() {
+        when(ticketRepository.lockAvailableTicketNos(3)).thenReturn(List.of("T-1", "T-2", "T-3"));
 
-        String out = ticketService.getTicketNumber();
+        List<String> out = ticketService.allocateTicketNumbers(3);
 
-        assertThat(out).isNull();
+        assertThat(out).containsExactly("T-1", "T-2", "T-3");
+        verify(ticketRepository, times(1)).lockAvailableTicketNos(3);
+        verify(ticketRepository, times(1)).updateStatus(eq(List.of("T-1", "T-2", "T-3")), eq(TicketStatus.USED), any());
+        verify(ticketRepository, never()).findTcicketByStatus(any());
         verify(ticketRepository, never()).save(any());
+        verifyNoInteractions(ticketImageRepository);
+    }
+
+    @Test
+    void allocateTicketNumbers_throws_whenPoolTooSmall() {
+        when(ticketRepository.lockAvailableTicketNos(2)).thenReturn(List.of("T-1"));
+
+        assertThatThrownBy(() -> ticketService.allocateTicketNumbers(2))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Not enough available tickets");
+        verify(ticketRepository, never()).updateStatus(any(), any(), any());
+    }
+
+    @Test
+    void allocateTicketNumbers_returnsEmpty_forNonPositiveCount() {
+        assertThat(ticketService.allocateTicketNumbers(0)).isEmpty();
+        verifyNoInteractions(ticketRepository);
+    }
+
+    @Test
+    void ticketMetadata_carriesNoImagePayload() {
+        // anything that loads Ticket rows (allocation, lookups, findAllTickets) must not pull image bytes
+        assertThat(Ticket.class.getDeclaredFields())
+                .extracting(Field::getType)
+                .doesNotContain(byte[].class, java.sql.Blob.class, TicketImage.class);
     }
 
     @Test
@@ -148,21 +258,58 @@ class TicketServiceTest {
     }
 
     @Test
-    void createZipFromImages_writesEachTicketAsEntry_withCorrectNameAndContent() throws Exception {
-        Ticket t1 = Ticket.builder().ticketNo("A1").data(new byte[]{1, 2, 3}).build();
-        Ticket t2 = Ticket.builder().ticketNo("B2").data(new byte[]{9, 8}).build();
+    void writeTicketZip_storesEachTicketUncompressed_inRequestedOrder_fetchingInChunks() throws Exception {
+        List<String> ticketNos = IntStream.range(0, 120).mapToObj(i -> String.format("T%03d", i)).toList();
+        when(ticketImageRepository.findByTicketNoIn(anyCollection())).thenAnswer(inv -> {
+            Collection<String> requested = inv.getArgument(0);
+            return requested.stream()
+                    .filter(no -> !no.equals("T050"))
+                    .map(no -> new TicketImage(Ticket.builder().ticketNo(no).build(), no.getBytes()))
+                    .toList();
+        });
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ticketService.writeTicketZip(ticketNos, out);
+
+        verify(ticketImageRepository, times(3)).findByTicketNoIn(anyCollection());
+        List<String> names = new ArrayList<>();
+        try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = zis.getNextEntry()) != null) {
+                assertThat(entry.getMethod()).isEqualTo(ZipEntry.STORED);
+                String no = entry.getName().replace(".png", "");
+                assertThat(zis.readAllBytes()).isEqualTo(no.getBytes());
+                names.add(entry.getName());
+            }
+        }
+        assertThat(names).hasSize(119).doesNotContain("T050.png");
+        assertThat(names).isSorted();
+    }
+
+    @Test
+    void writeTicketZip_writesEmptyArchive_forNoTickets() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
 
-        byte[] zipBytes = ticketService.createZipFromImages(List.of(t1, t2));
+        ticketService.writeTicketZip(List.of(), out);
 
-        // Read back zip and verify
-        Map<String, byte[]> entries = unzip(zipBytes);
-        assertThat(entries).containsOnlyKeys("A1.png", "B2.png");
-        assertThat(entries.get("A1.png")).containsExactly(1, 2, 3);
-        assertThat(entries.get("B2.png")).containsExactly(9, 8);
+        assertThat(unzip(out.toByteArray())).isEmpty();
+        verifyNoInteractions(ticketImageRepository);
     }
 
     // Helpers
 
+    private static SettingSnapshot snapshot(Setting setting, long version) {
+        return SettingSnapshot.of(setting, version, () -> null);
+    }
+
+    // setting has no base image, so only the loader can supply it, like a snapshot built from the projection
+    private static SettingSnapshot lazySnapshot(Setting setting, byte[] image, long version, AtomicInteger loads) {
+        return SettingSnapshot.of(setting, version, () -> {
+            loads.incrementAndGet();
+            return image;
+        });
+    }
+
     private Setting baseSetting(int maxTickets, String prefix, int digits, byte[] baseImage) {
         return Setting.builder()
                 .baseImage(baseImage)
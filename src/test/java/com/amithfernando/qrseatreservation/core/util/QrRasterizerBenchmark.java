@@ -0,0 +1,77 @@
+package com.amithfernando.qrseatreservation.core.util;
+
+import io.nayuki.qrcodegen.QrCode;
+import io.nayuki.qrcodegen.QrSegment;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Legacy setRGB rasterizing (intermediate image + drawImage) against QrRasterizer drawing into the ticket raster.
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.amithfernando.qrseatreservation.core.util.QrRasterizerBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QrRasterizerBenchmark {
+
+    @Param({"2", "6", "10"})
+    int version;
+
+    @Param({"4", "8", "13"})
+    int scale;
+
+    @Param({"3BYTE_BGR", "INT_RGB"})
+    String imageType;
+
+    private QrCode qr;
+    private BufferedImage ticket;
+
+    @Setup
+    public void setup() {
+        qr = QrCode.encodeSegments(List.of(QrSegment.makeNumeric("1234567890")), QrCode.Ecc.MEDIUM, version, version, -1, false);
+        int size = (qr.size + 2) * scale;
+        ticket = new BufferedImage(size + 200, size + 200,
+                imageType.equals("INT_RGB") ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_3BYTE_BGR);
+    }
+
+    @Benchmark
+    public BufferedImage legacySetRgb() {
+        Graphics g = ticket.getGraphics();
+        g.drawImage(legacyToImage(qr, scale, 1), 100, 100, null);
+        g.dispose();
+        return ticket;
+    }
+
+    @Benchmark
+    public BufferedImage rasterizer() {
+        QrRasterizer.draw(qr, scale, 1, ticket, 100, 100);
+        return ticket;
+    }
+
+    // the QrTicketGenerator.toImage implementation this replaced
+    static BufferedImage legacyToImage(QrCode qr, int scale, int border) {
+        BufferedImage result = new BufferedImage((qr.size + border * 2) * scale, (qr.size + border * 2) * scale, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < result.getHeight(); y++) {
+            for (int x = 0; x < result.getWidth(); x++) {
+                boolean color = qr.getModule(x / scale - border, y / scale - border);
+                result.setRGB(x, y, color ? 0x000000 : 0xFFFFFF);
+            }
+        }
+        return result;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(QrRasterizerBenchmark.class.getSimpleName()).build()).run();
+    }
+}
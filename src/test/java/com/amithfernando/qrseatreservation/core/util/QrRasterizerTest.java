@@ -0,0 +1,95 @@
+package com.amithfernando.qrseatreservation.core.util;
+
+import io.nayuki.qrcodegen.QrCode;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+import static org.assertj.core.api.Assertions.*;
+
+class QrRasterizerTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "1, 10, 10",     // TYPE_INT_RGB
+            "2, 10, 10",     // TYPE_INT_ARGB
+            "5, 10, 10",     // TYPE_3BYTE_BGR
+            "6, 10, 10",     // TYPE_4BYTE_ABGR
+            "10, 10, 10",    // TYPE_BYTE_GRAY, Graphics fallback
+            "5, -17, -30",   // clipped top/left
+            "5, 250, 260",   // clipped bottom/right
+            "1, 250, -5",
+    })
+    void draw_matchesLegacySetRgbOutput(int imageType, int x, int y) {
+        QrCode qr = QrCode.encodeText("T-123456", QrCode.Ecc.MEDIUM);
+        int scale = 13;
+
+        BufferedImage expected = background(imageType, 400, 420);
+        Graphics g = expected.getGraphics();
+        g.drawImage(QrRasterizerBenchmark.legacyToImage(qr, scale, 1), x, y, null);
+        g.dispose();
+
+        BufferedImage actual = background(imageType, 400, 420);
+        QrRasterizer.draw(qr, scale, 1, actual, x, y);
+
+        assertSamePixels(actual, expected);
+    }
+
+    @Test
+    void draw_writesIntoSubimageAtItsOwnOrigin() {
+        QrCode qr = QrCode.encodeText("T-1", QrCode.Ecc.MEDIUM);
+        BufferedImage parent = background(BufferedImage.TYPE_3BYTE_BGR, 300, 300);
+        BufferedImage expected = background(BufferedImage.TYPE_3BYTE_BGR, 300, 300);
+        Graphics g = expected.getGraphics();
+        g.drawImage(QrRasterizerBenchmark.legacyToImage(qr, 4, 1), 50 + 7, 60 + 3, null);
+        g.dispose();
+
+        QrRasterizer.draw(qr, 4, 1, parent.getSubimage(50, 60, 200, 200), 7, 3);
+
+        assertSamePixels(parent, expected);
+    }
+
+    @Test
+    void draw_ignoresCodeEntirelyOutsideTarget() {
+        QrCode qr = QrCode.encodeText("T-1", QrCode.Ecc.MEDIUM);
+        BufferedImage actual = background(BufferedImage.TYPE_INT_RGB, 50, 50);
+
+        QrRasterizer.draw(qr, 4, 1, actual, 60, -500);
+
+        assertSamePixels(actual, background(BufferedImage.TYPE_INT_RGB, 50, 50));
+    }
+
+    @Test
+    void draw_rejectsInvalidScale() {
+        QrCode qr = QrCode.encodeText("T-1", QrCode.Ecc.MEDIUM);
+        BufferedImage target = background(BufferedImage.TYPE_INT_RGB, 50, 50);
+
+        assertThatThrownBy(() -> QrRasterizer.draw(qr, 0, 1, target, 0, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static BufferedImage background(int type, int width, int height) {
+        BufferedImage img = new BufferedImage(width, height, type);
+        Graphics2D g = img.createGraphics();
+        try {
+            g.setColor(new Color(0x3366CC));
+            g.fillRect(0, 0, width, height);
+        } finally {
+            g.dispose();
+        }
+        return img;
+    }
+
+    private static void assertSamePixels(BufferedImage actual, BufferedImage expected) {
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                if (actual.getRGB(x, y) != expected.getRGB(x, y)) {
+                    fail("pixel (%d,%d) expected %08x but was %08x", x, y, expected.getRGB(x, y), actual.getRGB(x, y));
+                }
+            }
+        }
+    }
+}
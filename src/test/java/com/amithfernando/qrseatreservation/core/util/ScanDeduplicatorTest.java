@@ -0,0 +1,72 @@
+package com.amithfernando.qrseatreservation.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScanDeduplicatorTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final List<String> loaded = new ArrayList<>();
+    private final Function<String, String> loader = code -> {
+        loaded.add(code);
+        return "result-" + code;
+    };
+
+    @Test
+    void repeatsWithinTheWindow_areServedFromTheCache_andCounted() {
+        ScanDeduplicator<String> scans = new ScanDeduplicator<>(3000, 16, clock::get);
+
+        assertThat(scans.scan("T1", loader)).isEqualTo(new ScanDeduplicator.Scan<>("result-T1", false));
+        for (int frame = 0; frame < 30; frame++) {
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(33));
+            assertThat(scans.scan("T1", loader)).isEqualTo(new ScanDeduplicator.Scan<>("result-T1", true));
+        }
+        scans.scan("T2", loader);
+
+        assertThat(loaded).containsExactly("T1", "T2");
+        assertThat(scans.repeats()).isEqualTo(30);
+        assertThat(scans.lookups()).isEqualTo(2);
+    }
+
+    @Test
+    void expiredClearedAndEvictedCodes_areLookedUpAgain() {
+        ScanDeduplicator<String> scans = new ScanDeduplicator<>(3000, 2, clock::get);
+        scans.scan("T1", loader);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(3000));
+        assertThat(scans.scan("T1", loader).repeat()).isFalse();
+
+        scans.clear();
+        assertThat(scans.scan("T1", loader).repeat()).isFalse();
+
+        // capacity 2: T1 is the least recently used once T2 and T3 arrive
+        scans.scan("T2", loader);
+        scans.scan("T3", loader);
+        assertThat(scans.scan("T1", loader).repeat()).isFalse();
+        assertThat(scans.scan("T3", loader).repeat()).isTrue();
+
+        assertThat(loaded).containsExactly("T1", "T1", "T1", "T2", "T3", "T1");
+    }
+
+    @Test
+    void failedLookups_areNotCached() {
+        ScanDeduplicator<String> scans = new ScanDeduplicator<>(3000, 16, clock::get);
+        try {
+            scans.scan("T1", code -> {
+                throw new IllegalStateException("database down");
+            });
+        } catch (IllegalStateException expected) {
+            // the caller reports it
+        }
+
+        assertThat(scans.scan("T1", loader).repeat()).isFalse();
+        assertThat(loaded).containsExactly("T1");
+    }
+}
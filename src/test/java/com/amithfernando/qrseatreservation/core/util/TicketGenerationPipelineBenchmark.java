@@ -0,0 +1,57 @@
+package com.amithfernando.qrseatreservation.core.util;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Tickets per second through the generation pipeline (render and JPEG encode) at 1, 2, 4 and 8 workers.
+ * Batches are handed to a persister that drops them: database inserts are not part of this measurement.
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.amithfernando.qrseatreservation.core.util.TicketGenerationPipelineBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TicketGenerationPipelineBenchmark {
+
+    private static final int TICKETS = 64;
+
+    @Param({"1", "2", "4", "8"})
+    int workers;
+
+    private TicketTemplate template;
+
+    @Setup
+    public void setup() {
+        BufferedImage base = new BufferedImage(1200, 800, BufferedImage.TYPE_3BYTE_BGR);
+        Graphics2D g = base.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, base.getWidth(), base.getHeight());
+        g.dispose();
+        template = new TicketTemplate(0, base, 20, 10, 10, 10, 150);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TICKETS)
+    public int pipeline() throws IOException {
+        return new TicketGenerationPipeline(workers, 16, 32).run(
+                IntStream.range(0, TICKETS).mapToObj(i -> "T" + i).iterator(),
+                template::render,
+                batch -> { });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TicketGenerationPipelineBenchmark.class.getSimpleName()).build()).run();
+    }
+}
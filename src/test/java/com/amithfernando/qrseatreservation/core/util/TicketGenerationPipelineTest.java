@@ -0,0 +1,69 @@
+package com.amithfernando.qrseatreservation.core.util;
+
+import com.amithfernando.qrseatreservation.core.enums.TicketStatus;
+import com.amithfernando.qrseatreservation.core.model.TicketImage;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TicketGenerationPipelineTest {
+
+    @Test
+    void run_persistsEveryTicketOnce_inBoundedBatches() throws IOException {
+        BufferedImage base = baseImage(300, 200);
+        List<List<TicketImage>> batches = Collections.synchronizedList(new ArrayList<>());
+
+        int persisted = new TicketGenerationPipeline(3, 4, 10).run(
+                ticketNos(25), renderer(base), batches::add);
+
+        assertThat(persisted).isEqualTo(25);
+        assertThat(batches).allMatch(b -> b.size() <= 10);
+        List<TicketImage> all = batches.stream().flatMap(List::stream).toList();
+        assertThat(all).extracting(i -> i.getTicket().getTicketNo())
+                .containsExactlyInAnyOrderElementsOf(IntStream.range(0, 25).mapToObj(i -> "T" + i).toList());
+        assertThat(all).allMatch(i -> i.getTicket().getStatus() == TicketStatus.AVAILABLE);
+        // JPEG SOI marker
+        assertThat(all).allMatch(i -> i.getData().length > 2 && (i.getData()[0] & 0xFF) == 0xFF && (i.getData()[1] & 0xFF) == 0xD8);
+    }
+
+    @Test
+    void run_propagatesStageFailure() {
+        BufferedImage base = baseImage(100, 100);
+
+        assertThatThrownBy(() -> new TicketGenerationPipeline(2, 2, 5).run(
+                ticketNos(50),
+                no -> no.equals("T7") ? null : renderer(base).apply(no),
+                batch -> { }))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("T7");
+    }
+
+    private static Iterator<String> ticketNos(int count) {
+        return IntStream.range(0, count).mapToObj(i -> "T" + i).iterator();
+    }
+
+    private static java.util.function.Function<String, BufferedImage> renderer(BufferedImage base) {
+        return new TicketTemplate(0, base, 20, 10, 10, 10, 150)::render;
+    }
+
+    private static BufferedImage baseImage(int width, int height) {
+        BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_3BYTE_BGR);
+        Graphics2D g = img.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+        } finally {
+            g.dispose();
+        }
+        return img;
+    }
+}
@@ -0,0 +1,66 @@
+package com.amithfernando.qrseatreservation.core.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.BitSet;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TicketNumberPermutationTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 4, 5, 6})
+    void permute_isBijectionOverWholeDomain(int digits) {
+        TicketNumberPermutation permutation = new TicketNumberPermutation(42L, digits);
+        int size = (int) permutation.domainSize();
+        BitSet seen = new BitSet(size);
+
+        for (int i = 0; i < size; i++) {
+            long value = permutation.permute(i);
+            assertThat(value).isBetween(0L, size - 1L);
+            assertThat(seen.get((int) value)).as("duplicate %d at index %d", value, i).isFalse();
+            seen.set((int) value);
+        }
+        assertThat(seen.cardinality()).isEqualTo(size);
+    }
+
+    @Test
+    void permute_isDeterministicPerKey_andDiffersBetweenKeys() {
+        TicketNumberPermutation a = new TicketNumberPermutation(7L, 8);
+        TicketNumberPermutation again = new TicketNumberPermutation(7L, 8);
+        TicketNumberPermutation other = new TicketNumberPermutation(8L, 8);
+
+        long[] first = LongStream.range(0, 100).map(a::permute).toArray();
+        assertThat(LongStream.range(0, 100).map(again::permute).toArray()).isEqualTo(first);
+        assertThat(LongStream.range(0, 100).map(other::permute).toArray()).isNotEqualTo(first);
+    }
+
+    @Test
+    void permute_isNotSequential() {
+        TicketNumberPermutation permutation = new TicketNumberPermutation(123L, 6);
+
+        long ascendingSteps = LongStream.range(0, 1000)
+                .filter(i -> permutation.permute(i + 1) == permutation.permute(i) + 1)
+                .count();
+
+        assertThat(ascendingSteps).isLessThan(5);
+    }
+
+    @Test
+    void permute_supportsMaximumWidth() {
+        TicketNumberPermutation permutation = new TicketNumberPermutation(-1L, TicketNumberPermutation.MAX_DIGITS);
+
+        assertThat(permutation.domainSize()).isEqualTo(1_000_000_000_000_000_000L);
+        assertThat(permutation.permute(permutation.domainSize() - 1)).isBetween(0L, permutation.domainSize() - 1);
+    }
+
+    @Test
+    void rejectsOutOfRangeInput() {
+        assertThatThrownBy(() -> new TicketNumberPermutation(1L, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TicketNumberPermutation(1L, 19)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TicketNumberPermutation(1L, 2).permute(100)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
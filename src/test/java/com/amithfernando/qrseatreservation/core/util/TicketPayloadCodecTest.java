@@ -0,0 +1,61 @@
+package com.amithfernando.qrseatreservation.core.util;
+
+import com.amithfernando.qrseatreservation.core.util.TicketPayloadCodec.Outcome;
+import io.nayuki.qrcodegen.QrCode;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TicketPayloadCodecTest {
+
+    private static final byte[] KEY = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+
+    private final TicketPayloadCodec codec = new TicketPayloadCodec(KEY, "CN2025");
+
+    @Test
+    void signedPayload_roundTrips_andStaysAlphanumericAndSmall() {
+        String payload = codec.encode("T004711");
+
+        assertThat(payload).matches("S1\\.T004711\\.CN2025\\.[A-Z2-7]{13}");
+        TicketPayloadCodec.Result result = codec.decode(payload);
+        assertThat(result.outcome()).isEqualTo(Outcome.SIGNED);
+        assertThat(result.ticketNo()).isEqualTo("T004711");
+        // 35 alphanumeric characters fit version 2 at medium error correction
+        assertThat(QrCode.encodeText(payload, QrCode.Ecc.MEDIUM).version).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void tamperedForeignAndOtherEventCodes_areRejected() {
+        String payload = codec.encode("T004711");
+
+        assertThat(codec.decode(payload.replace("T004711", "T004712")).outcome()).isEqualTo(Outcome.BAD_SIGNATURE);
+        char last = payload.charAt(payload.length() - 1);
+        String flipped = payload.substring(0, payload.length() - 1) + (last == 'A' ? 'B' : 'A');
+        assertThat(codec.decode(flipped).outcome()).isIn(Outcome.BAD_SIGNATURE, Outcome.MALFORMED);
+        assertThat(codec.decode("S1.T004711.CN2025.abc").outcome()).isEqualTo(Outcome.MALFORMED);
+        assertThat(codec.decode("S1.T004711").outcome()).isEqualTo(Outcome.MALFORMED);
+        assertThat(codec.decode("https://example.com/?t=T004711").outcome()).isEqualTo(Outcome.MALFORMED);
+
+        // same key, another event
+        String otherEvent = new TicketPayloadCodec(KEY, "CN2024").encode("T004711");
+        assertThat(codec.decode(otherEvent).outcome()).isEqualTo(Outcome.OTHER_EVENT);
+        // another key
+        String otherKey = new TicketPayloadCodec("fedcba9876543210fedcba9876543210".getBytes(StandardCharsets.UTF_8),
+                "CN2025").encode("T004711");
+        assertThat(codec.decode(otherKey).outcome()).isEqualTo(Outcome.BAD_SIGNATURE);
+    }
+
+    @Test
+    void plainTicketNumbers_areReportedAsPlain() {
+        TicketPayloadCodec.Result result = codec.decode(" T004711 ");
+
+        assertThat(result.outcome()).isEqualTo(Outcome.PLAIN);
+        assertThat(result.ticketNo()).isEqualTo("T004711");
+        assertThat(codec.decode("").outcome()).isEqualTo(Outcome.MALFORMED);
+        assertThatThrownBy(() -> new TicketPayloadCodec(new byte[8], "CN2025"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,87 @@
+package com.amithfernando.qrseatreservation.ui.view.component;
+
+import com.amithfernando.qrseatreservation.core.enums.SeatStatus;
+import com.amithfernando.qrseatreservation.core.model.SeatDetail;
+import com.amithfernando.qrseatreservation.core.model.TableDetail;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SeatCanvasTest {
+
+    // two columns of 50px tables, so table centers are 100px apart; seat 12 is on hold in a reservation dialog
+    private final SeatCanvas canvas = new SeatCanvas(List.of(
+            table("T1", seat(10L, "1", SeatStatus.AVAILABLE), seat(11L, "2", SeatStatus.RESERVED),
+                    seat(12L, "3", SeatStatus.AVAILABLE)),
+            table("T2", seat(20L, "1", SeatStatus.CHECKED_IN), seat(21L, "2", SeatStatus.UNAVAILABLE)),
+            table("T3", seat(30L, "1", SeatStatus.AVAILABLE))),
+            50, 12, 2, Set.of(12L));
+
+    @Test
+    void payload_isFlatTableTriplesAndOneLetterPerSeatInTableOrder() {
+        JsonObject payload = canvas.payload();
+
+        assertThat(payload.keys()).containsExactlyInAnyOrder("tableSize", "seatSize", "tables", "tableNames",
+                "seatNos", "status");
+        assertThat((int) payload.getNumber("tableSize")).isEqualTo(50);
+        assertThat((int) payload.getNumber("seatSize")).isEqualTo(12);
+        // [x, y, seatCount] per table, row by row
+        assertThat(ints(payload.getArray("tables"))).containsExactly(
+                100, 100, 3,
+                200, 100, 2,
+                100, 200, 1);
+        assertThat(strings(payload.getArray("tableNames"))).containsExactly("T1", "T2", "T3");
+        assertThat(strings(payload.getArray("seatNos"))).containsExactly("1", "2", "3", "1", "2", "1");
+        assertThat(payload.getString("status")).isEqualTo("ARHCUA");
+    }
+
+    @Test
+    void deltaPayload_mapsSeatIdsToTheirPayloadIndex_andSkipsUnknownSeats() {
+        canvas.payload();
+        Map<Long, SeatStatus> delta = new LinkedHashMap<>();
+        delta.put(21L, SeatStatus.AVAILABLE);
+        delta.put(99L, SeatStatus.RESERVED);
+        delta.put(10L, SeatStatus.RESERVED);
+        // the hold is from draw time, a changed held seat is drawn by its status alone
+        delta.put(12L, SeatStatus.AVAILABLE);
+        delta.put(30L, SeatStatus.CHECKED_IN);
+
+        JsonObject update = canvas.deltaPayload(delta);
+
+        assertThat(ints(update.getArray("indexes"))).containsExactly(4, 0, 2, 5);
+        assertThat(update.getString("status")).isEqualTo("ARAC");
+        assertThat(ints(canvas.deltaPayload(Map.of(99L, SeatStatus.RESERVED)).getArray("indexes"))).isEmpty();
+    }
+
+    private static TableDetail table(String name, SeatDetail... seats) {
+        return TableDetail.builder().tableName(name).noOfSeats(seats.length).seatDetails(List.of(seats)).build();
+    }
+
+    private static SeatDetail seat(Long id, String seatNo, SeatStatus status) {
+        return SeatDetail.builder().id(id).seatNo(seatNo).seatStatus(status).build();
+    }
+
+    private static List<Integer> ints(JsonArray array) {
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < array.length(); i++) {
+            values.add((int) array.getNumber(i));
+        }
+        return values;
+    }
+
+    private static List<String> strings(JsonArray array) {
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < array.length(); i++) {
+            values.add(array.getString(i));
+        }
+        return values;
+    }
+}